@@ -0,0 +1,84 @@
+package com.sbsolutions.services;
+
+import com.sbsolutions.services.MenuCatalog.Category;
+import com.sbsolutions.services.MenuCatalog.Entry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Typeahead latency of {@link MenuSearchIndex} under concurrent load.
+ *
+ * <p>Sample-time mode, so the report lists p50 / p90 / p99 / p99.9 per query. Eight threads
+ * search one shared index at once, as concurrent sessions would. {@code query} covers a short
+ * prefix with many hits, full words, typos that only fuzzy matching finds and a two-word query;
+ * {@code size} is the number of catalog items (flavors and toppings are added on top).
+ * {@code rebuild} measures building the index for a new menu version.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class MenuSearchIndexBenchmark {
+
+  private static final String[] FLAVORS =
+      {"Chocolate", "Maple", "Strawberry", "Blueberry", "Lemon", "Vanilla", "Cherry", "Banana",
+       "Butterscotch", "Peanut Butter", "Creme Cheese", "Cinnamon", "Apple", "Honey", "Caramel"};
+  private static final String[] KINDS =
+      {"Glazed", "Cake", "Raised", "Sprinkles", "Bar", "Twist", "Fritter", "Roll", "Cruller",
+       "Long John", "Holes", "Old Fashioned", "Bear Claw", "Filled", "Iced"};
+
+  @Param({"100", "1000", "10000"})
+  public int size;
+
+  @Param({"c", "choc", "sprinkles", "glazd", "bluebery", "maple bar"})
+  public String query;
+
+  private List<Entry> entries;
+  private List<MenuSearchIndex.Extra> extras;
+  private MenuSearchIndex.Index index;
+
+  @Setup
+  public void setUp() {
+    entries = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      String name = FLAVORS[i % FLAVORS.length] + " " + KINDS[(i / FLAVORS.length) % KINDS.length]
+          + (i < FLAVORS.length * KINDS.length ? "" : " " + i);
+      entries.add(new Entry(Category.values()[i % 3],
+          new MenuItem(name, name, null, null, null, null, 0, null, i, "$1.29 / each", null, null)));
+    }
+    extras = new ArrayList<>();
+    for (String flavor : FLAVORS) {
+      extras.add(new MenuSearchIndex.Extra(MenuSearchIndex.Kind.FLAVOR, flavor, null));
+    }
+    extras.add(new MenuSearchIndex.Extra(MenuSearchIndex.Kind.TOPPING, "Sprinkles", null));
+    extras.add(new MenuSearchIndex.Extra(MenuSearchIndex.Kind.TOPPING, "Oreo", null));
+    index = MenuSearchIndex.Index.build(1, entries, extras);
+  }
+
+  @Benchmark
+  public Object search() {
+    return index.search(query, MenuSearchIndex.TYPEAHEAD_LIMIT);
+  }
+
+  @Benchmark
+  @Threads(1)
+  public Object rebuild() {
+    return MenuSearchIndex.Index.build(2, entries, extras);
+  }
+}
@@ -0,0 +1,96 @@
+package com.sbsolutions.util;
+
+import com.sbsolutions.order.models.Donut;
+import java.time.DayOfWeek;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Micro-benchmarks for the {@link KioskLogic} helpers on the kiosk render path.
+ *
+ * <p>{@code input} mixes strings seen in the real catalog with adversarial ones: long lists,
+ * unknown tokens, odd whitespace and malformed ranges. Run with {@code -prof gc} (the default
+ * in the {@code jmh} profile) to see allocations per operation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class KioskLogicBenchmark {
+
+  @Param({
+      "Mon",
+      "Mon,Wed,Fri",
+      "Mon-Fri",
+      "Sat-Mon",
+      " monday , TUES ,wed-fri , Sunday ",
+      "xyz,abc,Mon-,-Fri,Sat-Mon-Tue,,,",
+      "Mon,Tue,Wed,Thu,Fri,Sat,Sun,Mon,Tue,Wed,Thu,Fri,Sat,Sun,Mon,Tue,Wed,Thu,Fri,Sat,Sun",
+  })
+  public String input;
+
+  private String firstToken;
+  private Donut  donut;
+  private int    mask;
+
+  @Setup
+  public void setUp() {
+    firstToken = input.split("[,-]", 2)[0];
+    mask = KioskLogic.availabilityMask(input);
+    donut = new Donut();
+    donut.setImageMedium("https://cdn.example.com/products/" + input.length() + "/medium.webp");
+    donut.setUrl("https://cdn.example.com/products/" + input.length() + "/original.webp");
+  }
+
+  @Benchmark
+  public Object parseAvailableDays() {
+    return KioskLogic.parseAvailableDays(input);
+  }
+
+  @Benchmark
+  public int availabilityMask() {
+    return KioskLogic.availabilityMask(input);
+  }
+
+  @Benchmark
+  public boolean isAvailableOnMask() {
+    return KioskLogic.isAvailableOn(mask, DayOfWeek.SATURDAY);
+  }
+
+  @Benchmark
+  public int firstDayOrder() {
+    return KioskLogic.firstDayOrder(mask);
+  }
+
+  @Benchmark
+  public Object parseDay() {
+    return KioskLogic.parseDay(firstToken);
+  }
+
+  @Benchmark
+  public int dayOrder() {
+    return KioskLogic.dayOrder(input);
+  }
+
+  @Benchmark
+  public String bestImageUrl() {
+    return KioskLogic.bestImageUrl(donut);
+  }
+
+  @Benchmark
+  public String fixExt() {
+    return KioskLogic.fixExt(donut.getUrl());
+  }
+}
@@ -0,0 +1,137 @@
+package com.sbsolutions.views;
+
+import com.sbsolutions.images.ImageVariant;
+import com.sbsolutions.services.MenuItem;
+import com.sbsolutions.services.PriceRow;
+import com.sbsolutions.util.KioskLogic;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End-to-end component construction for the kiosk carousels and prices sidebar against
+ * synthetic catalogs of {@code size} items.
+ *
+ * <p>The {@code cold*} benchmarks build a {@link KioskSection} / {@link KioskPricesSidebar} with
+ * an empty {@link KioskFragments}, so every fragment is rendered (the first kiosk after a new
+ * version). The {@code attach*} benchmarks build one against the shared, already filled
+ * {@link KioskFragments}, so they measure cache hits (another kiosk attaching). The
+ * {@code unchanged*} benchmarks re-apply the same version to an already rendered one, and
+ * {@code oneChangedSection} alternates between two versions that differ in a single card, which
+ * is what a typical menu edit costs.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class KioskRenderBenchmark {
+
+  private static final String[] DAYS = {null, "Mon", "Mon-Fri", "Sat,Sun", "Tue,Thu", "Fri-Sun"};
+
+  @Param({"10", "100", "1000", "10000"})
+  public int size;
+
+  private final LocalDate today = LocalDate.of(2026, 10, 16);
+
+  private final KioskFragments fragments = new KioskFragments();
+
+  private List<MenuItem>     items;
+  private List<MenuItem>     itemsOneChanged;
+  private List<PriceRow>     prices;
+  private List<MenuItem>     specials;
+  private KioskSection       renderedSection;
+  private KioskSection       alternatingSection;
+  private KioskPricesSidebar renderedSidebar;
+  private boolean            flip;
+
+  @Setup
+  public void catalog() {
+    items = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      items.add(item(i, "$" + (1 + i % 5) + ".29 / each"));
+    }
+    itemsOneChanged = new ArrayList<>(items);
+    itemsOneChanged.set(size / 2, item(size / 2, "$9.99 / each"));
+
+    prices = new ArrayList<>();
+    for (int i = 0; i < Math.min(size, 40); i++) {
+      prices.add(new PriceRow("Row " + i, i % 2 == 0 ? "each" : "dozen", "$" + i + ".99", i));
+    }
+    specials = items.stream().filter(item -> item.isFeaturedOn(today)).limit(20).toList();
+
+    renderedSection = new KioskSection("Donuts", fragments);
+    renderedSection.update(items);
+    alternatingSection = new KioskSection("Donuts", fragments);
+    alternatingSection.update(items);
+    renderedSidebar = new KioskPricesSidebar(fragments);
+    renderedSidebar.update(prices, specials, today);
+  }
+
+  private static MenuItem item(int i, String priceText) {
+    String days = DAYS[i % DAYS.length];
+    String imageUrl = i % 7 == 0 ? null : "https://cdn.example.com/products/" + i + "/small.png";
+    return new MenuItem(
+        "Donut " + i,
+        "Donut " + i,
+        imageUrl,
+        ImageVariant.CARD.proxyUrl(imageUrl),
+        ImageVariant.SPECIAL.proxyUrl(imageUrl),
+        days,
+        KioskLogic.availabilityMask(days),
+        days == null ? null : days.replace(",", " · "),
+        i,
+        priceText,
+        null,
+        null);
+  }
+
+  @Benchmark
+  public int coldSection() {
+    return new KioskSection("Donuts", new KioskFragments()).update(items);
+  }
+
+  @Benchmark
+  public int attachSection() {
+    return new KioskSection("Donuts", fragments).update(items);
+  }
+
+  @Benchmark
+  public int unchangedSection() {
+    return renderedSection.update(items);
+  }
+
+  @Benchmark
+  public int oneChangedSection() {
+    flip = !flip;
+    return alternatingSection.update(flip ? itemsOneChanged : items);
+  }
+
+  @Benchmark
+  public int coldSidebar() {
+    return new KioskPricesSidebar(new KioskFragments()).update(prices, specials, today);
+  }
+
+  @Benchmark
+  public int attachSidebar() {
+    return new KioskPricesSidebar(fragments).update(prices, specials, today);
+  }
+
+  @Benchmark
+  public int unchangedSidebar() {
+    return renderedSidebar.update(prices, specials, today);
+  }
+}
@@ -0,0 +1,181 @@
+import { LitElement, css, html } from 'lit';
+import { customElement, property, query } from 'lit/decorators.js';
+
+/**
+ * Shows one of its children at a time and advances every `interval` milliseconds.
+ *
+ * Children are stacked in a single grid cell and switched with opacity and transform only, so
+ * a flip is composited on the GPU without layout or `display` toggling. The timer lives in the
+ * element: the server only adds, removes or replaces children (the carousel keeps its position
+ * across those changes) and sets `interval` / `transition`. Rotation pauses while the page is
+ * hidden, and the images of the next child are decoded before it is shown.
+ *
+ * Events, so the server can keep only a window of children materialized:
+ * - `kiosk-carousel-flip` once a flip has finished, with the `data-key` of the child now shown;
+ * - `kiosk-carousel-capacity` with `rows` × the number of columns of at least
+ *   `--kiosk-carousel-item-min-width` that fit the carousel's width, whenever that changes.
+ *   The column count is also exposed to children as `--kiosk-carousel-columns`.
+ */
+@customElement('kiosk-carousel')
+export class KioskCarousel extends LitElement {
+  static styles = css`
+    :host {
+      display: grid;
+      position: relative;
+    }
+    #probe {
+      position: absolute;
+      visibility: hidden;
+      height: 0;
+      width: var(--kiosk-carousel-item-min-width, 0px);
+    }
+    ::slotted(*) {
+      grid-area: 1 / 1;
+      opacity: 0;
+      transform: translate3d(var(--kiosk-carousel-shift, 3%), 0, 0);
+      transition: opacity var(--kiosk-carousel-transition, 500ms) ease,
+        transform var(--kiosk-carousel-transition, 500ms) ease;
+      will-change: opacity, transform;
+      pointer-events: none;
+    }
+    ::slotted([carousel-state='active']) {
+      opacity: 1;
+      transform: none;
+      pointer-events: auto;
+    }
+    ::slotted([carousel-state='leaving']) {
+      transform: translate3d(calc(-1 * var(--kiosk-carousel-shift, 3%)), 0, 0);
+    }
+    @media (prefers-reduced-motion: reduce) {
+      ::slotted(*) {
+        transform: none;
+        transition: opacity var(--kiosk-carousel-transition, 500ms) linear;
+      }
+    }
+  `;
+
+  /** Milliseconds each child stays on screen. */
+  @property({ type: Number }) interval = 10_000;
+
+  /** Milliseconds of the cross-fade between two children. */
+  @property({ type: Number }) transition = 500;
+
+  /** Rows per child for capacity reporting; `0` turns measuring off. */
+  @property({ type: Number }) rows = 0;
+
+  @query('#probe') private probe!: HTMLElement;
+
+  private slides: HTMLElement[] = [];
+  private current = 0;
+  private timer?: number;
+  private capacity = 0;
+  private readonly onVisibilityChange = () => this.schedule();
+  private readonly resizeObserver = new ResizeObserver(() => this.measure());
+
+  connectedCallback() {
+    super.connectedCallback();
+    document.addEventListener('visibilitychange', this.onVisibilityChange);
+    this.schedule();
+  }
+
+  disconnectedCallback() {
+    super.disconnectedCallback();
+    document.removeEventListener('visibilitychange', this.onVisibilityChange);
+    window.clearTimeout(this.timer);
+    this.resizeObserver.disconnect();
+  }
+
+  protected firstUpdated() {
+    this.resizeObserver.observe(this);
+    this.resizeObserver.observe(this.probe);
+  }
+
+  protected updated(changed: Map<PropertyKey, unknown>) {
+    if (changed.has('transition')) {
+      this.style.setProperty('--kiosk-carousel-transition', `${this.transition}ms`);
+    }
+    if (changed.has('interval')) {
+      this.schedule();
+    }
+    if (changed.has('rows')) {
+      this.measure();
+    }
+  }
+
+  render() {
+    return html`<div id="probe"></div><slot @slotchange=${this.onSlotChange}></slot>`;
+  }
+
+  /** Reports how many items fit when the width, the minimum item width or `rows` changed. */
+  private measure() {
+    const minWidth = this.probe?.getBoundingClientRect().width ?? 0;
+    if (this.rows <= 0 || minWidth <= 0 || this.clientWidth <= 0) return;
+    const columns = Math.max(1, Math.floor(this.clientWidth / minWidth));
+    this.style.setProperty('--kiosk-carousel-columns', String(columns));
+    const capacity = columns * this.rows;
+    if (capacity === this.capacity) return;
+    this.capacity = capacity;
+    this.dispatchEvent(new CustomEvent('kiosk-carousel-capacity', { detail: { capacity } }));
+  }
+
+  /** Keeps the shown child across server-side patches; falls back to the first one. */
+  private onSlotChange(event: Event) {
+    const shown = this.slides[this.current];
+    this.slides = (event.target as HTMLSlotElement)
+      .assignedElements()
+      .filter((el): el is HTMLElement => el instanceof HTMLElement);
+    const kept = shown ? this.slides.indexOf(shown) : -1;
+    this.current = kept >= 0 ? kept : 0;
+    this.slides.forEach((slide, i) => {
+      if (i === this.current) slide.setAttribute('carousel-state', 'active');
+      else slide.removeAttribute('carousel-state');
+      slide.setAttribute('aria-hidden', String(i !== this.current));
+    });
+    this.schedule();
+  }
+
+  /** (Re)arms the single flip timer, or stops it when hidden or with nothing to rotate. */
+  private schedule() {
+    window.clearTimeout(this.timer);
+    this.timer = undefined;
+    if (!this.isConnected || document.hidden || this.slides.length < 2) return;
+    this.timer = window.setTimeout(() => this.flip(), this.interval);
+  }
+
+  private async flip() {
+    const next = (this.current + 1) % this.slides.length;
+    const incoming = this.slides[next];
+    await this.decodeImages(incoming);
+    if (this.slides[next] !== incoming || document.hidden) {
+      this.schedule();
+      return;
+    }
+    const outgoing = this.slides[this.current];
+    outgoing.setAttribute('carousel-state', 'leaving');
+    outgoing.setAttribute('aria-hidden', 'true');
+    incoming.setAttribute('carousel-state', 'active');
+    incoming.setAttribute('aria-hidden', 'false');
+    this.current = next;
+    window.setTimeout(() => {
+      if (outgoing.getAttribute('carousel-state') === 'leaving') outgoing.removeAttribute('carousel-state');
+      const key = incoming.dataset.key ?? '';
+      this.dispatchEvent(new CustomEvent('kiosk-carousel-flip', { detail: { key } }));
+    }, this.transition);
+    this.schedule();
+  }
+
+  /** Waits until the images of `slide` are decoded, but never longer than half an interval. */
+  private decodeImages(slide: HTMLElement): Promise<unknown> {
+    const images = Array.from(slide.querySelectorAll('img'));
+    if (images.length === 0) return Promise.resolve();
+    const decoded = Promise.all(images.map((img) => img.decode().catch(() => undefined)));
+    const limit = new Promise((resolve) => window.setTimeout(resolve, this.interval / 2));
+    return Promise.race([decoded, limit]);
+  }
+}
+
+declare global {
+  interface HTMLElementTagNameMap {
+    'kiosk-carousel': KioskCarousel;
+  }
+}
@@ -0,0 +1,83 @@
+import { LitElement, html } from 'lit';
+import { customElement, property, state } from 'lit/decorators.js';
+
+/**
+ * Header clock for the kiosk view. Ticks in the browser in the store time zone, so the server
+ * is only contacted to correct drift every `resyncInterval` milliseconds.
+ */
+@customElement('kiosk-clock')
+export class KioskClock extends LitElement {
+  /** IANA zone the time is displayed in, e.g. `America/Chicago`. */
+  @property({ type: String }) timeZone = 'America/Chicago';
+
+  /** Server epoch millis at the time the property was written; used to compute the offset. */
+  @property({ type: Number }) serverTime = Date.now();
+
+  @property({ type: Number }) resyncInterval = 60 * 60 * 1000;
+
+  @state() private now = Date.now();
+
+  private offset = 0;
+  private formatter = this.createFormatter();
+  private tickTimer?: number;
+  private resyncTimer?: number;
+
+  connectedCallback() {
+    super.connectedCallback();
+    this.scheduleTick();
+    this.resyncTimer = window.setInterval(() => this.resync(), this.resyncInterval);
+  }
+
+  disconnectedCallback() {
+    super.disconnectedCallback();
+    window.clearTimeout(this.tickTimer);
+    window.clearInterval(this.resyncTimer);
+  }
+
+  protected willUpdate(changed: Map<PropertyKey, unknown>) {
+    if (changed.has('serverTime')) {
+      this.offset = this.serverTime - Date.now();
+    }
+    if (changed.has('timeZone')) {
+      this.formatter = this.createFormatter();
+    }
+  }
+
+  render() {
+    return html`${this.formatter.format(this.now + this.offset)}`;
+  }
+
+  private createFormatter() {
+    return new Intl.DateTimeFormat('en-US', {
+      timeZone: this.timeZone,
+      hour: 'numeric',
+      minute: '2-digit',
+      second: '2-digit',
+      hour12: true,
+    });
+  }
+
+  /** Re-renders on the next whole second of the corrected clock. */
+  private scheduleTick() {
+    const corrected = Date.now() + this.offset;
+    this.tickTimer = window.setTimeout(() => {
+      this.now = Date.now();
+      this.scheduleTick();
+    }, 1000 - (corrected % 1000));
+  }
+
+  private async resync() {
+    const server = (this as any).$server;
+    if (!server) return;
+    const sent = Date.now();
+    const serverNow: number = await server.serverTime();
+    const received = Date.now();
+    this.offset = serverNow + (received - sent) / 2 - received;
+  }
+}
+
+declare global {
+  interface HTMLElementTagNameMap {
+    'kiosk-clock': KioskClock;
+  }
+}
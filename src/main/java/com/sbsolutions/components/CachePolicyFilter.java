@@ -0,0 +1,76 @@
+package com.sbsolutions.components;
+
+import jakarta.servlet.*;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Sets {@code Cache-Control} by request path. A configured path ending in {@code /} matches
+ * everything under it; any other path matches only itself.
+ *
+ * <ul>
+ *   <li>{@code http.cache.immutable-paths} (content-hashed bundles): cached for
+ *       {@code http.cache.immutable-max-age} and never revalidated.</li>
+ *   <li>{@code http.cache.revalidate-paths} (images, icons, proxied product images, the display
+ *       page and its assets): cached, but revalidated on every use against
+ *       {@code ETag}/{@code Last-Modified}, so unchanged files cost a 304.</li>
+ *   <li>Everything else (bootstrap HTML, UIDL, push, the display event stream): {@code no-store}.</li>
+ * </ul>
+ */
+@Component
+public class CachePolicyFilter implements Filter {
+
+  static final String NO_STORE   = "no-store, no-cache, must-revalidate, max-age=0";
+  static final String REVALIDATE = "public, no-cache";
+
+  private final String[] immutablePaths;
+  private final String[] revalidatePaths;
+  private final String   immutable;
+
+  public CachePolicyFilter(
+      @Value("${http.cache.immutable-paths:/VAADIN/build/}") String[] immutablePaths,
+      @Value("${http.cache.revalidate-paths:/images/,/icons/,/image-proxy/,/display,/display/assets/}") String[] revalidatePaths,
+      @Value("${http.cache.immutable-max-age:365d}") Duration immutableMaxAge) {
+    this.immutablePaths  = immutablePaths;
+    this.revalidatePaths = revalidatePaths;
+    this.immutable       = "public, max-age=" + immutableMaxAge.toSeconds() + ", immutable";
+  }
+
+  @Override
+  public void doFilter(ServletRequest request,
+      ServletResponse response,
+      FilterChain chain)
+      throws IOException, ServletException {
+
+    HttpServletRequest  httpRequest  = (HttpServletRequest) request;
+    HttpServletResponse httpResponse = (HttpServletResponse) response;
+
+    String path = httpRequest.getRequestURI().substring(httpRequest.getContextPath().length());
+
+    if (matchesAny(path, immutablePaths)) {
+      httpResponse.setHeader("Cache-Control", immutable);
+    } else if (matchesAny(path, revalidatePaths)) {
+      httpResponse.setHeader("Cache-Control", REVALIDATE);
+    } else {
+      httpResponse.setHeader("Cache-Control", NO_STORE);
+      httpResponse.setHeader("Pragma", "no-cache");
+      httpResponse.setDateHeader("Expires", 0);
+    }
+
+    chain.doFilter(request, response);
+  }
+
+  private static boolean matchesAny(String path, String[] patterns) {
+    for (String pattern : patterns) {
+      String trimmed = pattern.trim();
+      if (trimmed.isEmpty()) continue;
+      if (trimmed.endsWith("/") ? path.startsWith(trimmed) : path.equals(trimmed)) return true;
+    }
+    return false;
+  }
+}
@@ -0,0 +1,89 @@
+package com.sbsolutions.components;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.ComponentEvent;
+import com.vaadin.flow.component.ComponentEventListener;
+import com.vaadin.flow.component.DomEvent;
+import com.vaadin.flow.component.EventData;
+import com.vaadin.flow.component.HasComponents;
+import com.vaadin.flow.component.HasStyle;
+import com.vaadin.flow.component.Tag;
+import com.vaadin.flow.component.dependency.JsModule;
+import com.vaadin.flow.shared.Registration;
+import java.time.Duration;
+
+/**
+ * Lit-backed carousel ({@code kiosk-carousel.ts}) that shows one child at a time.
+ *
+ * <p>Rotation, pausing while the page is hidden and image decoding all happen in the browser.
+ * The server only manages the children, as components or as the carousel's {@code innerHTML};
+ * the carousel keeps its position across patches that keep the shown child, so a menu update
+ * never restarts a timer.
+ *
+ * <p>A carousel that only holds a window of its pages listens for {@link FlipEvent} (which
+ * child, by {@code data-key}, is now shown) and {@link CapacityEvent} (how many items fit one
+ * page at the measured width).
+ */
+@Tag("kiosk-carousel")
+@JsModule("./components/kiosk-carousel.ts")
+public class KioskCarousel extends Component implements HasComponents, HasStyle {
+
+  /**
+   * @param interval   how long each child stays on screen
+   * @param transition duration of the cross-fade between two children
+   */
+  public KioskCarousel(Duration interval, Duration transition) {
+    getElement().setProperty("interval", (double) interval.toMillis());
+    getElement().setProperty("transition", (double) transition.toMillis());
+  }
+
+  /**
+   * Turns on capacity reporting for pages of {@code rows} rows; the minimum item width comes
+   * from the CSS property {@code --kiosk-carousel-item-min-width}.
+   */
+  public void setRows(int rows) {
+    getElement().setProperty("rows", rows);
+  }
+
+  public Registration addFlipListener(ComponentEventListener<FlipEvent> listener) {
+    return addListener(FlipEvent.class, listener);
+  }
+
+  public Registration addCapacityListener(ComponentEventListener<CapacityEvent> listener) {
+    return addListener(CapacityEvent.class, listener);
+  }
+
+  /** A flip has finished; {@link #getKey()} is the {@code data-key} of the child now shown. */
+  @DomEvent("kiosk-carousel-flip")
+  public static class FlipEvent extends ComponentEvent<KioskCarousel> {
+
+    private final String key;
+
+    public FlipEvent(KioskCarousel source, boolean fromClient,
+        @EventData("event.detail.key") String key) {
+      super(source, fromClient);
+      this.key = key;
+    }
+
+    public String getKey() {
+      return key;
+    }
+  }
+
+  /** The number of items that fit one page changed, e.g. after a resize or rotation. */
+  @DomEvent("kiosk-carousel-capacity")
+  public static class CapacityEvent extends ComponentEvent<KioskCarousel> {
+
+    private final int capacity;
+
+    public CapacityEvent(KioskCarousel source, boolean fromClient,
+        @EventData("event.detail.capacity") int capacity) {
+      super(source, fromClient);
+      this.capacity = capacity;
+    }
+
+    public int getCapacity() {
+      return capacity;
+    }
+  }
+}
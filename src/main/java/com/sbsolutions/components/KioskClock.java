@@ -0,0 +1,31 @@
+package com.sbsolutions.components;
+
+import com.vaadin.flow.component.ClientCallable;
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.HasStyle;
+import com.vaadin.flow.component.Tag;
+import com.vaadin.flow.component.dependency.JsModule;
+import java.time.ZoneId;
+
+/**
+ * Browser-side clock for the kiosk header.
+ *
+ * <p>The element ticks on its own in the given store time zone. The server only supplies its
+ * current time on creation and answers an occasional {@link #serverTime()} resync, so a screen
+ * no longer needs a poll round trip every second to show the time.
+ */
+@Tag("kiosk-clock")
+@JsModule("./components/kiosk-clock.ts")
+public class KioskClock extends Component implements HasStyle {
+
+  public KioskClock(ZoneId zone) {
+    getElement().setProperty("timeZone", zone.getId());
+    getElement().setProperty("serverTime", (double) System.currentTimeMillis());
+  }
+
+  /** Called by the client every {@code resyncInterval} to correct drift. */
+  @ClientCallable
+  public double serverTime() {
+    return System.currentTimeMillis();
+  }
+}
@@ -1,26 +0,0 @@
-package com.sbsolutions.components;
-
-import jakarta.servlet.*;
-import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.stereotype.Component;
-
-import java.io.IOException;
-
-@Component
-public class NoCacheFilter implements Filter {
-
-  @Override
-  public void doFilter(ServletRequest request,
-      ServletResponse response,
-      FilterChain chain)
-      throws IOException, ServletException {
-
-    HttpServletResponse httpResponse = (HttpServletResponse) response;
-
-    httpResponse.setHeader("Cache-Control", "no-store, no-cache, must-revalidate, max-age=0");
-    httpResponse.setHeader("Pragma", "no-cache");
-    httpResponse.setDateHeader("Expires", 0);
-
-    chain.doFilter(request, response);
-  }
-}
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.sbsolutions.components;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+/**
+ * Adds {@code ETag} validators to the revalidated static assets (see {@link CachePolicyFilter}),
+ * so a kiosk reload gets a 304 instead of re-downloading every image. Limited to those paths
+ * because the filter buffers the response body, which would break push and UIDL streaming.
+ */
+@Configuration
+public class StaticAssetEtagConfig {
+
+  @Bean
+  public FilterRegistrationBean<ShallowEtagHeaderFilter> staticAssetEtagFilter() {
+    FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+        new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+    registration.addUrlPatterns("/images/*", "/icons/*", "/display/assets/*");
+    return registration;
+  }
+}
@@ -0,0 +1,47 @@
+package com.sbsolutions.display;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Display-only kiosk served without a Vaadin session.
+ *
+ * <p>{@code GET /display} returns the current {@link DisplayPage} with its token as a strong
+ * {@code ETag}, so a screen that reloads an unchanged menu gets a 304. {@code GET
+ * /display/events} is the {@link DisplayEvents} stream that tells it when to reload. The
+ * stylesheets and script live under {@code /display/assets/}; {@code kiosk-view.css} is copied
+ * there from the Vaadin theme at build time.
+ */
+@RestController
+public class DisplayController {
+
+  private static final MediaType TEXT_HTML_UTF8 = MediaType.parseMediaType("text/html;charset=UTF-8");
+
+  private final DisplayPage   page;
+  private final DisplayEvents events;
+
+  public DisplayController(DisplayPage page, DisplayEvents events) {
+    this.page   = page;
+    this.events = events;
+  }
+
+  @GetMapping("/display")
+  public ResponseEntity<String> page(WebRequest request) {
+    DisplayPage.Rendered rendered = page.current();
+    String etag = "\"" + rendered.token() + "\"";
+    if (request.checkNotModified(etag)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+    return ResponseEntity.ok().eTag(etag).contentType(TEXT_HTML_UTF8).body(rendered.html());
+  }
+
+  @GetMapping(path = "/display/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter events() {
+    return events.connect();
+  }
+}
@@ -0,0 +1,117 @@
+package com.sbsolutions.display;
+
+import com.sbsolutions.services.MenuBroadcaster;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Server-Sent Events stream telling {@code /display} screens which page to show.
+ *
+ * <p>Every screen receives a {@code menu} event carrying the {@link DisplayPage#token()} when it
+ * connects, whenever {@link MenuBroadcaster} publishes a new version, and every
+ * {@code display.heartbeat} (which also rolls the page over at midnight and keeps idle proxies
+ * from closing the stream). A screen whose token differs fetches the page again, after a random
+ * delay within {@code kiosk.refresh.jitter}. Each {@code menu} event is followed by a
+ * {@code refreshed} event with the header's "Last refreshed" text, which is also sent on every
+ * {@link MenuBroadcaster#heartbeat}, so a poll that finds no change still updates the header
+ * without a page fetch.
+ *
+ * <p>The whole set of screens is a single {@link MenuBroadcaster} subscriber, and a connection
+ * costs only its emitter: no session, no component state and, with asynchronous servlet
+ * requests, no thread. Each event is built once and written to the screens from virtual
+ * threads, so a slow screen does not hold up the others. Streams end after
+ * {@code display.stream-timeout}; the browser's {@code EventSource} reconnects on its own.
+ */
+@Component
+public class DisplayEvents {
+
+  private static final Logger log = LoggerFactory.getLogger(DisplayEvents.class);
+
+  private final DisplayPage     page;
+  private final MenuBroadcaster menuBroadcaster;
+  private final Duration        streamTimeout;
+  private final Set<SseEmitter> screens = ConcurrentHashMap.newKeySet();
+  private final ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor();
+
+  public DisplayEvents(DisplayPage page, MenuBroadcaster menuBroadcaster, MeterRegistry registry,
+      @Value("${display.stream-timeout:PT30M}") Duration streamTimeout) {
+    this.page            = page;
+    this.menuBroadcaster = menuBroadcaster;
+    this.streamTimeout   = streamTimeout;
+    Gauge.builder("display.screens", screens, Set::size)
+        .description("Connected /display event streams")
+        .register(registry);
+  }
+
+  @PostConstruct
+  void listen() {
+    menuBroadcaster.subscribe(snapshot -> publish(page.token()));
+    menuBroadcaster.onHeartbeat(snapshot -> publish(page.token()));
+  }
+
+  @PreDestroy
+  void shutdown() {
+    writers.shutdownNow();
+    screens.forEach(SseEmitter::complete);
+  }
+
+  /** Opens the stream of one screen and sends it the current token. */
+  public SseEmitter connect() {
+    SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+    emitter.onCompletion(() -> screens.remove(emitter));
+    emitter.onTimeout(emitter::complete);
+    emitter.onError(error -> screens.remove(emitter));
+    screens.add(emitter);
+    send(emitter, event(page.token(), page.refreshed()));
+    return emitter;
+  }
+
+  @Scheduled(initialDelayString = "${display.heartbeat:PT30S}", fixedDelayString = "${display.heartbeat:PT30S}")
+  void heartbeat() {
+    if (!screens.isEmpty()) publish(page.token());
+  }
+
+  /** Number of connected screens. */
+  public int size() {
+    return screens.size();
+  }
+
+  void publish(String token) {
+    log.debug("Sending display token {} to {} screen(s)", token, screens.size());
+    Set<DataWithMediaType> event = event(token, page.refreshed());
+    for (SseEmitter emitter : screens) {
+      writers.execute(() -> send(emitter, event));
+    }
+  }
+
+  private static Set<DataWithMediaType> event(String token, String refreshed) {
+    Set<DataWithMediaType> event = new LinkedHashSet<>(SseEmitter.event().name("menu").data(token).build());
+    event.addAll(SseEmitter.event().name("refreshed").data(refreshed).build());
+    return event;
+  }
+
+  /** Writes {@code event}; a screen that went away is dropped, the container ends its request. */
+  private void send(SseEmitter emitter, Set<DataWithMediaType> event) {
+    try {
+      emitter.send(event);
+    } catch (IOException | IllegalStateException e) {
+      screens.remove(emitter);
+    }
+  }
+}
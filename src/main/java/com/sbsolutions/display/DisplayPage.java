@@ -0,0 +1,148 @@
+package com.sbsolutions.display;
+
+import com.sbsolutions.services.MenuItem;
+import com.sbsolutions.services.MenuSnapshot;
+import com.sbsolutions.services.MenuSnapshotService;
+import com.sbsolutions.views.KioskFragments;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * The read-only {@code /display} document: the whole kiosk menu as one static HTML page.
+ *
+ * <p>The page is rendered once per menu version and store day from the shared
+ * {@link KioskFragments}, and the same {@link Rendered} instance is served to every screen, so
+ * memory does not grow with the number of displays. Its markup follows {@code KioskView}'s, so
+ * {@code kiosk-view.css} styles both; {@code display.js} rotates the pages, ticks the clock and
+ * reloads the menu when {@link DisplayEvents} announces a new {@link #token}.
+ */
+@Component
+public class DisplayPage {
+
+  /** Cards per page: two rows of the six columns {@code kiosk-view.css} defaults to. */
+  static final int PAGE_SIZE = 12;
+
+  private static final DateTimeFormatter HEADER_DATE    = DateTimeFormatter.ofPattern("EEEE, MMMM d, yyyy");
+  private static final DateTimeFormatter REFRESHED_TIME = DateTimeFormatter.ofPattern("h:mm:ss a");
+
+  private final MenuSnapshotService menuSnapshotService;
+  private final KioskFragments      fragments;
+  private final ZoneId              storeZone;
+  private final Duration            jitter;
+  private volatile Rendered         rendered;
+
+  public DisplayPage(MenuSnapshotService menuSnapshotService, KioskFragments fragments,
+      @Value("${kiosk.time-zone:America/Chicago}") ZoneId storeZone,
+      @Value("${kiosk.refresh.jitter:PT3S}") Duration jitter) {
+    this.menuSnapshotService = menuSnapshotService;
+    this.fragments           = fragments;
+    this.storeZone           = storeZone;
+    this.jitter              = jitter;
+  }
+
+  /**
+   * A rendered document.
+   *
+   * @param token identifies what the page shows (menu version and store day); also its ETag
+   * @param html  the complete document
+   */
+  public record Rendered(String token, String html) {}
+
+  /** The page for the current menu and day; never waits for order-data. */
+  public Rendered current() {
+    LocalDate today = LocalDate.now(storeZone);
+    MenuSnapshot snapshot = menuSnapshotService.currentSnapshot().orElse(null);
+    String token = token(snapshot, today);
+    Rendered page = rendered;
+    if (page == null || !page.token().equals(token)) {
+      page = new Rendered(token, render(snapshot, today, token));
+      rendered = page;
+    }
+    return page;
+  }
+
+  /** The "Last refreshed" header text for the current snapshot; it changes without a new page. */
+  public String refreshed() {
+    return refreshed(menuSnapshotService.currentSnapshot().orElse(null));
+  }
+
+  private String refreshed(MenuSnapshot snapshot) {
+    return snapshot == null ? "Loading menu…"
+        : "Last refreshed: " + snapshot.fetchedAt().atZone(storeZone).format(REFRESHED_TIME);
+  }
+
+  /** The token of the page {@link #current()} would serve now. */
+  public String token() {
+    return token(menuSnapshotService.currentSnapshot().orElse(null), LocalDate.now(storeZone));
+  }
+
+  static String token(MenuSnapshot snapshot, LocalDate day) {
+    return (snapshot == null ? "loading" : String.valueOf(snapshot.version())) + "-" + day;
+  }
+
+  private String render(MenuSnapshot snapshot, LocalDate today, String token) {
+    StringBuilder html = new StringBuilder(64 * 1024);
+    html.append("<!DOCTYPE html><html lang=\"en\"><head><meta charset=\"utf-8\">")
+        .append("<meta name=\"viewport\" content=\"width=device-width, initial-scale=1\">")
+        .append("<title>Kiosk Menu</title>")
+        .append("<link rel=\"stylesheet\" href=\"display/assets/kiosk-view.css\">")
+        .append("<link rel=\"stylesheet\" href=\"display/assets/display.css\">")
+        .append("<script src=\"display/assets/display.js\" defer></script>")
+        .append("</head><body>");
+
+    html.append("<div class=\"kiosk-root\" data-token=\"").append(token)
+        .append("\" data-time-zone=\"").append(storeZone.getId())
+        .append("\" data-jitter=\"").append(jitter.toMillis()).append("\">");
+
+    html.append("<div class=\"kiosk-header\"><span class=\"kiosk-header-brand\">Randy's Donuts</span>")
+        .append("<div class=\"kiosk-header-right\">")
+        .append("<span class=\"kiosk-header-date\">").append(today.format(HEADER_DATE)).append("</span>")
+        .append("<span class=\"kiosk-header-refreshed\" data-clock></span>")
+        .append("<span class=\"kiosk-header-refreshed\" data-refreshed>").append(refreshed(snapshot))
+        .append("</span></div></div>");
+
+    html.append("<div class=\"kiosk-main\"><div class=\"kiosk-content\">");
+    appendSection(html, "Donuts",      snapshot == null ? null : snapshot.donuts());
+    appendSection(html, "Donut Holes", snapshot == null ? null : snapshot.donutHoles());
+    appendSection(html, "Rolls",       snapshot == null ? null : snapshot.rolls());
+    if (snapshot != null && snapshot.hasNoProducts()) {
+      html.append("<span class=\"kiosk-empty\">No products available at this time.</span>");
+    }
+    html.append("</div>");
+
+    html.append(snapshot == null ? "<div class=\"kiosk-prices kiosk-loading\">" : "<div class=\"kiosk-prices\">")
+        .append("<span class=\"kiosk-prices-title\">Prices</span><div class=\"kiosk-prices-rows\">");
+    if (snapshot != null) html.append(fragments.priceRows(snapshot.prices()));
+    html.append("</div>");
+    List<MenuItem> specials = snapshot == null ? List.of() : snapshot.specialsOn(today);
+    if (!specials.isEmpty()) {
+      html.append("<span class=\"kiosk-specials-title\">Specials</span>")
+          .append("<div class=\"kiosk-specials display-carousel\" data-interval=\"10000\">")
+          .append(fragments.specials(specials, today))
+          .append("</div>");
+    }
+    html.append("</div></div></div></body></html>");
+    return html.toString();
+  }
+
+  /** One product row; {@code items} is {@code null} while the menu is still loading. */
+  private void appendSection(StringBuilder html, String label, List<MenuItem> items) {
+    if (items != null && items.isEmpty()) return;
+    html.append(items == null ? "<div class=\"kiosk-section kiosk-loading\">" : "<div class=\"kiosk-section\">")
+        .append("<h4 class=\"kiosk-section-label\">").append(label).append("</h4>")
+        .append("<div class=\"kiosk-viewport\"><div class=\"kiosk-track display-carousel\" data-interval=\"10000\">");
+    if (items != null) {
+      for (int start = 0; start < items.size(); start += PAGE_SIZE) {
+        html.append("<div class=\"kiosk-page\">")
+            .append(fragments.cards(items.subList(start, Math.min(start + PAGE_SIZE, items.size()))))
+            .append("</div>");
+      }
+    }
+    html.append("</div></div></div>");
+  }
+}
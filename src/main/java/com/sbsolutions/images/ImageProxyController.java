@@ -0,0 +1,98 @@
+package com.sbsolutions.images;
+
+import com.sbsolutions.images.ImageVariantCache.CachedImage;
+import com.sbsolutions.services.MenuItem;
+import com.sbsolutions.services.MenuSnapshot;
+import com.sbsolutions.services.MenuSnapshotService;
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Serves resized product images at {@code /image-proxy/{variant}?src=<upstream url>}.
+ *
+ * <p>Only image URLs that appear in the current catalog are proxied, so the endpoint cannot be
+ * used to fetch arbitrary hosts. Responses carry a strong {@code ETag} derived from the encoded
+ * bytes and {@code Vary: Accept}; {@code Cache-Control} comes from {@code CachePolicyFilter}.
+ */
+@RestController
+public class ImageProxyController {
+
+  private static final Logger log = LoggerFactory.getLogger(ImageProxyController.class);
+
+  private final ImageProxyService   imageProxyService;
+  private final MenuSnapshotService menuSnapshotService;
+  private volatile AllowedSources   allowed = new AllowedSources(-1, Set.of());
+
+  public ImageProxyController(ImageProxyService imageProxyService,
+      MenuSnapshotService menuSnapshotService) {
+    this.imageProxyService   = imageProxyService;
+    this.menuSnapshotService = menuSnapshotService;
+  }
+
+  @GetMapping("/" + ImageVariant.PATH + "{variant}")
+  public ResponseEntity<Resource> image(@PathVariable String variant, @RequestParam String src,
+      @RequestHeader(value = HttpHeaders.ACCEPT, defaultValue = "") String accept,
+      WebRequest request) {
+    ImageVariant size = ImageVariant.fromSlug(variant).orElse(null);
+    if (size == null || !isCatalogImage(src)) {
+      return ResponseEntity.notFound().build();
+    }
+
+    CachedImage image;
+    try {
+      image = imageProxyService.variant(src, size, accept.contains("image/webp"));
+    } catch (IOException e) {
+      log.warn("Could not proxy {}: {}", src, e.getMessage());
+      return ResponseEntity.status(HttpStatus.BAD_GATEWAY).build();
+    }
+
+    String etag = "\"" + image.etag() + "\"";
+    if (request.checkNotModified(etag)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+          .eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+    }
+    return ResponseEntity.ok()
+        .eTag(etag)
+        .varyBy(HttpHeaders.ACCEPT)
+        .contentType(MediaType.parseMediaType(image.contentType()))
+        .contentLength(image.size())
+        .body(new FileSystemResource(image.file()));
+  }
+
+  private boolean isCatalogImage(String src) {
+    MenuSnapshot snapshot = menuSnapshotService.currentSnapshot().orElse(null);
+    if (snapshot == null) return false;
+    AllowedSources sources = allowed;
+    if (sources.version() != snapshot.version()) {
+      sources = new AllowedSources(snapshot.version(),
+          Stream.of(snapshot.donuts(), snapshot.donutHoles(), snapshot.rolls())
+              .flatMap(List::stream)
+              .map(MenuItem::imageUrl)
+              .filter(Objects::nonNull)
+              .collect(Collectors.toUnmodifiableSet()));
+      allowed = sources;
+    }
+    return sources.urls().contains(src);
+  }
+
+  /** Image URLs of one catalog version. */
+  private record AllowedSources(long version, Set<String> urls) {}
+}
@@ -0,0 +1,288 @@
+package com.sbsolutions.images;
+
+import com.sbsolutions.images.ImageVariantCache.CachedImage;
+import jakarta.annotation.PreDestroy;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Fetches upstream product images once and renders them at each {@link ImageVariant} size.
+ *
+ * <p>Rendered variants live in {@link ImageVariantCache}; a miss fetches the original, scales
+ * it down and stores the result. Concurrent misses for the same variant share one fetch, so a
+ * wall of kiosks reconnecting after a deploy costs one upstream request per image.
+ *
+ * <p>A variant older than {@code image-proxy.revalidate-after} is still served at once, and its
+ * original is revalidated in the background with {@code If-Modified-Since}. A {@code 304} only
+ * restarts the period. A changed original is rendered again and replaces the variant. If
+ * upstream cannot be reached, the old variant is kept and the next request tries again.
+ *
+ * <p>Originals are decoded with {@link ImageReader} after checking the size in their header:
+ * anything over {@code image-proxy.max-source-pixels} is refused before a pixel buffer is
+ * allocated, and large images are subsampled while decoding to about twice the variant's edge,
+ * so a small, highly compressed file cannot make the proxy allocate a huge bitmap.
+ *
+ * <p>Images with transparency are encoded as PNG and everything else as JPEG. WebP is produced
+ * only for clients that accept it and only when an ImageIO WebP writer is on the classpath.
+ */
+@Service
+public class ImageProxyService {
+
+  private static final Logger log = LoggerFactory.getLogger(ImageProxyService.class);
+
+  private static final float JPEG_QUALITY = 0.85f;
+
+  private final ImageVariantCache cache;
+  private final Duration          fetchTimeout;
+  private final Duration          revalidateAfter;
+  private final long              maxSourceBytes;
+  private final long              maxSourcePixels;
+  private final HttpClient        http;
+  private final ExecutorService   executor = Executors.newVirtualThreadPerTaskExecutor();
+  private final Map<String, CompletableFuture<CachedImage>> inFlight = new ConcurrentHashMap<>();
+  private final boolean           webpSupported = ImageIO.getImageWritersByMIMEType("image/webp").hasNext();
+
+  public ImageProxyService(ImageVariantCache cache,
+      @Value("${image-proxy.fetch-timeout:PT10S}") Duration fetchTimeout,
+      @Value("${image-proxy.max-source-size:10MB}") DataSize maxSourceSize,
+      @Value("${image-proxy.max-source-pixels:40000000}") long maxSourcePixels,
+      @Value("${image-proxy.revalidate-after:PT24H}") Duration revalidateAfter) {
+    this.cache           = cache;
+    this.fetchTimeout    = fetchTimeout;
+    this.revalidateAfter = revalidateAfter;
+    this.maxSourceBytes  = maxSourceSize.toBytes();
+    this.maxSourcePixels = maxSourcePixels;
+    this.http            = HttpClient.newBuilder()
+        .connectTimeout(fetchTimeout)
+        .followRedirects(HttpClient.Redirect.NORMAL)
+        .executor(executor)
+        .build();
+  }
+
+  @PreDestroy
+  void shutdown() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * Returns {@code src} rendered as {@code variant}, from the cache when possible.
+   *
+   * @param acceptsWebp whether the client listed {@code image/webp} in its {@code Accept} header
+   * @throws IOException when the source cannot be fetched or decoded
+   */
+  public CachedImage variant(String src, ImageVariant variant, boolean acceptsWebp) throws IOException {
+    boolean webp = acceptsWebp && webpSupported;
+    String id  = variant.slug() + (webp ? ":webp:" : ":") + src;
+    String key = ImageVariantCache.sha256(id.getBytes(StandardCharsets.UTF_8)).substring(0, 40);
+    CachedImage cached = cache.get(key);
+    if (cached != null) {
+      if (cached.storedAt().plus(revalidateAfter).isBefore(Instant.now())) {
+        revalidateLater(key, src, variant, webp, cached);
+      }
+      return cached;
+    }
+
+    CompletableFuture<CachedImage> mine = new CompletableFuture<>();
+    CompletableFuture<CachedImage> running = inFlight.putIfAbsent(key, mine);
+    if (running != null) return join(running);
+    try {
+      mine.complete(render(key, src, variant, webp, download(src, null)));
+    } catch (IOException | RuntimeException e) {
+      mine.completeExceptionally(e);
+    } finally {
+      inFlight.remove(key, mine);
+    }
+    return join(mine);
+  }
+
+  /** Revalidates {@code cached} on a fetch thread unless a fetch for {@code key} is already running. */
+  private void revalidateLater(String key, String src, ImageVariant variant, boolean webp, CachedImage cached) {
+    CompletableFuture<CachedImage> mine = new CompletableFuture<>();
+    if (inFlight.putIfAbsent(key, mine) != null) return;
+    try {
+      executor.execute(() -> revalidate(key, src, variant, webp, cached, mine));
+    } catch (RejectedExecutionException e) {
+      inFlight.remove(key, mine);       // shutting down
+    }
+  }
+
+  /** Re-renders {@code key} if its original changed since {@code cached}; completes {@code mine} either way. */
+  private void revalidate(String key, String src, ImageVariant variant, boolean webp, CachedImage cached,
+      CompletableFuture<CachedImage> mine) {
+    try {
+      byte[] data = download(src, cached.storedAt());
+      CachedImage fresh = data == null ? cache.touch(key) : render(key, src, variant, webp, data);
+      mine.complete(fresh != null ? fresh : cached);
+    } catch (IOException | RuntimeException e) {
+      log.warn("Could not revalidate {}; serving the cached variant: {}", src, e.getMessage());
+      mine.complete(cached);
+    } finally {
+      inFlight.remove(key, mine);
+    }
+  }
+
+  private CachedImage render(String key, String src, ImageVariant variant, boolean webp, byte[] data)
+      throws IOException {
+    long start = System.nanoTime();
+    BufferedImage source = decode(data, variant.maxEdge(), maxSourcePixels, src);
+    BufferedImage scaled = scale(source, variant.maxEdge());
+    boolean alpha = scaled.getColorModel().hasAlpha();
+    String extension = webp ? "webp" : alpha ? "png" : "jpg";
+    CachedImage image = cache.put(key, encode(scaled, extension), extension);
+    log.debug("Rendered {} variant of {} as {} ({} bytes) in {} ms", variant.slug(), src, extension,
+        image.size(), (System.nanoTime() - start) / 1_000_000);
+    return image;
+  }
+
+  /**
+   * Fetches the original at {@code src}. With {@code ifModifiedSince} set, returns {@code null}
+   * when upstream answers {@code 304 Not Modified}.
+   */
+  private byte[] download(String src, Instant ifModifiedSince) throws IOException {
+    HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(src)).timeout(fetchTimeout).GET();
+    if (ifModifiedSince != null) {
+      builder.header("If-Modified-Since",
+          DateTimeFormatter.RFC_1123_DATE_TIME.format(ifModifiedSince.atZone(ZoneOffset.UTC)));
+    }
+    HttpRequest request = builder.build();
+    HttpResponse<InputStream> response;
+    try {
+      response = http.send(request, HttpResponse.BodyHandlers.ofInputStream());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted fetching " + src, e);
+    }
+    try (InputStream body = response.body()) {
+      if (ifModifiedSince != null && response.statusCode() == 304) return null;
+      if (response.statusCode() != 200) {
+        throw new IOException("Upstream returned " + response.statusCode() + " for " + src);
+      }
+      byte[] data = body.readNBytes((int) Math.min(maxSourceBytes + 1, Integer.MAX_VALUE - 8));
+      if (data.length > maxSourceBytes) throw new IOException("Source image too large: " + src);
+      return data;
+    }
+  }
+
+  /**
+   * Decodes {@code data}, refusing images of more than {@code maxPixels} pixels by their header
+   * and subsampling those whose longest edge exceeds twice {@code maxEdge}; {@link #scale}
+   * does the rest of the reduction.
+   */
+  static BufferedImage decode(byte[] data, int maxEdge, long maxPixels, String src) throws IOException {
+    try (ImageInputStream stream = ImageIO.createImageInputStream(new ByteArrayInputStream(data))) {
+      Iterator<ImageReader> readers = stream == null ? null : ImageIO.getImageReaders(stream);
+      if (readers == null || !readers.hasNext()) throw new IOException("Unsupported image format: " + src);
+      ImageReader reader = readers.next();
+      try {
+        reader.setInput(stream, true, true);
+        int width  = reader.getWidth(0);
+        int height = reader.getHeight(0);
+        if ((long) width * height > maxPixels) {
+          throw new IOException("Source image too large: " + src + " is " + width + "x" + height);
+        }
+        int step = Math.max(1, Math.max(width, height) / (2 * maxEdge));
+        ImageReadParam param = reader.getDefaultReadParam();
+        if (step > 1) param.setSourceSubsampling(step, step, 0, 0);
+        return reader.read(0, param);
+      } finally {
+        reader.dispose();
+      }
+    }
+  }
+
+  /**
+   * Scales {@code source} so its longest edge is at most {@code maxEdge}, halving in steps so
+   * bilinear filtering stays sharp on large reductions. Never scales up.
+   */
+  static BufferedImage scale(BufferedImage source, int maxEdge) {
+    int width  = source.getWidth();
+    int height = source.getHeight();
+    double ratio = Math.min(1.0, (double) maxEdge / Math.max(width, height));
+    int targetWidth  = Math.max(1, (int) Math.round(width * ratio));
+    int targetHeight = Math.max(1, (int) Math.round(height * ratio));
+    int type = source.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+
+    BufferedImage current = source;
+    do {
+      width  = Math.max(targetWidth, width / 2);
+      height = Math.max(targetHeight, height / 2);
+      BufferedImage next = new BufferedImage(width, height, type);
+      Graphics2D g = next.createGraphics();
+      try {
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g.drawImage(current, 0, 0, width, height, null);
+      } finally {
+        g.dispose();
+      }
+      current = next;
+    } while (width != targetWidth || height != targetHeight);
+    return current;
+  }
+
+  static byte[] encode(BufferedImage image, String extension) throws IOException {
+    String mimeType = ImageVariantCache.contentType(extension);
+    Iterator<ImageWriter> writers = ImageIO.getImageWritersByMIMEType(mimeType);
+    if (!writers.hasNext()) throw new IOException("No ImageIO writer for " + mimeType);
+    ImageWriter writer = writers.next();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (MemoryCacheImageOutputStream stream = new MemoryCacheImageOutputStream(out)) {
+      writer.setOutput(stream);
+      ImageWriteParam param = writer.getDefaultWriteParam();
+      if ("jpg".equals(extension)) {
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(JPEG_QUALITY);
+      }
+      writer.write(null, new IIOImage(image, null, null), param);
+    } finally {
+      writer.dispose();
+    }
+    return out.toByteArray();
+  }
+
+  private static CachedImage join(CompletableFuture<CachedImage> future) throws IOException {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof IOException io) throw io;
+      if (e.getCause() instanceof UncheckedIOException io) throw io.getCause();
+      throw e;
+    }
+  }
+}
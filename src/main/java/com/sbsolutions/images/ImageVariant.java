@@ -0,0 +1,52 @@
+package com.sbsolutions.images;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Display sizes the image proxy renders product images at. Sizes are the longest edge in
+ * pixels, chosen to cover the CSS box on a 4K kiosk without shipping the upstream original.
+ */
+public enum ImageVariant {
+
+  /** Product card thumbnail ({@code .kiosk-card-img}). */
+  CARD(256),
+
+  /** Specials image in the prices sidebar ({@code .kiosk-specials-img}, up to 315px). */
+  SPECIAL(384);
+
+  static final String PATH = "image-proxy/";
+
+  private final int maxEdge;
+
+  ImageVariant(int maxEdge) {
+    this.maxEdge = maxEdge;
+  }
+
+  public int maxEdge() {
+    return maxEdge;
+  }
+
+  /** Path segment used in proxy URLs, e.g. {@code card}. */
+  public String slug() {
+    return name().toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Returns the relative proxy URL serving {@code src} at this size, or {@code src} unchanged
+   * when it is {@code null} or not an absolute http(s) URL (local assets are served directly).
+   */
+  public String proxyUrl(String src) {
+    if (src == null || !(src.startsWith("https://") || src.startsWith("http://"))) return src;
+    return PATH + slug() + "?src=" + URLEncoder.encode(src, StandardCharsets.UTF_8);
+  }
+
+  public static Optional<ImageVariant> fromSlug(String slug) {
+    for (ImageVariant variant : values()) {
+      if (variant.slug().equals(slug)) return Optional.of(variant);
+    }
+    return Optional.empty();
+  }
+}
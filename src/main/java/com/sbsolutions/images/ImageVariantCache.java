@@ -0,0 +1,193 @@
+package com.sbsolutions.images;
+
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Bounded, disk-backed LRU store for resized product images.
+ *
+ * <p>Each entry is one file named {@code <key>.<etag>.<ext>}, so the strong validator survives a
+ * restart without re-hashing the file. The in-memory index is rebuilt from the directory on
+ * startup (oldest modification first); when the total size exceeds
+ * {@code image-proxy.cache-max-size} the least recently used files are deleted.
+ *
+ * <p>A file's modification time is when its content was last confirmed against upstream:
+ * written by {@link #put}, or moved forward by {@link #touch} after upstream reported the
+ * original unchanged. {@link ImageProxyService} revalidates from that time.
+ *
+ * <p>Only files this cache wrote are ever deleted: entries matching its name pattern and its own
+ * {@code .tmp} leftovers. Anything else found in {@code image-proxy.cache-dir} is logged and left
+ * alone.
+ */
+@Component
+public class ImageVariantCache {
+
+  private static final Logger log = LoggerFactory.getLogger(ImageVariantCache.class);
+
+  /** File names of entries: {@code <40 hex key>.<32 hex etag>.<png|jpg|webp>}. */
+  private static final Pattern ENTRY = Pattern.compile("([0-9a-f]{40})\\.([0-9a-f]{32})\\.(png|jpg|webp)");
+
+  /**
+   * A cached image file together with its strong validator and media type.
+   *
+   * @param storedAt when the content was last confirmed against upstream (the file's modification time)
+   */
+  public record CachedImage(Path file, String etag, String contentType, long size, Instant storedAt) {}
+
+  private final Path dir;
+  private final long maxBytes;
+  private final Map<String, CachedImage> index = new LinkedHashMap<>(64, 0.75f, true);
+  private long totalBytes;
+
+  public ImageVariantCache(
+      @Value("${image-proxy.cache-dir:${java.io.tmpdir}/order-menu/images}") Path dir,
+      @Value("${image-proxy.cache-max-size:256MB}") DataSize maxSize) {
+    this.dir      = dir;
+    this.maxBytes = maxSize.toBytes();
+  }
+
+  @PostConstruct
+  synchronized void load() throws IOException {
+    Files.createDirectories(dir);
+    List<Path> files;
+    try (Stream<Path> listing = Files.list(dir)) {
+      files = new ArrayList<>(listing.filter(Files::isRegularFile).toList());
+    }
+    files.sort(Comparator.comparing(ImageVariantCache::lastModified));
+    for (Path file : files) {
+      String name = file.getFileName().toString();
+      Matcher entry = ENTRY.matcher(name);
+      if (!entry.matches()) {
+        if (name.endsWith(".tmp")) {
+          Files.deleteIfExists(file);   // partial write from put
+        } else {
+          log.warn("Ignoring {} in the image cache directory: not a cached image", file);
+        }
+        continue;
+      }
+      long size = Files.size(file);
+      index.put(entry.group(1), new CachedImage(file, entry.group(2), contentType(entry.group(3)), size,
+          lastModified(file).toInstant()));
+      totalBytes += size;
+    }
+    evict();
+    log.info("Image cache at {} holds {} file(s), {} bytes", dir, index.size(), totalBytes);
+  }
+
+  /** Returns the cached image for {@code key} and marks it recently used, or {@code null}. */
+  public synchronized CachedImage get(String key) {
+    CachedImage image = index.get(key);
+    if (image != null && !Files.exists(image.file())) {
+      index.remove(key);
+      totalBytes -= image.size();
+      return null;
+    }
+    return image;
+  }
+
+  /** Stores {@code data} under {@code key}, replacing the file atomically, and evicts as needed. */
+  public synchronized CachedImage put(String key, byte[] data, String extension) throws IOException {
+    String etag = sha256(data).substring(0, 32);
+    Path file = dir.resolve(key + "." + etag + "." + extension);
+    Path tmp = Files.createTempFile(dir, key, ".tmp");
+    try {
+      Files.write(tmp, data);
+      Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
+
+    CachedImage previous = index.remove(key);
+    if (previous != null) {
+      totalBytes -= previous.size();
+      if (!previous.file().equals(file)) Files.deleteIfExists(previous.file());
+    }
+    CachedImage image = new CachedImage(file, etag, contentType(extension), data.length,
+        lastModified(file).toInstant());
+    index.put(key, image);
+    totalBytes += data.length;
+    evict();
+    return image;
+  }
+
+  /**
+   * Records that upstream still has the original of {@code key}: sets the file's modification
+   * time, and so {@link CachedImage#storedAt}, to now. Returns the updated entry, or {@code null}
+   * when it was evicted meanwhile.
+   */
+  public synchronized CachedImage touch(String key) throws IOException {
+    CachedImage image = get(key);
+    if (image == null) return null;
+    Files.setLastModifiedTime(image.file(), FileTime.from(Instant.now()));
+    CachedImage touched = new CachedImage(image.file(), image.etag(), image.contentType(), image.size(),
+        lastModified(image.file()).toInstant());
+    index.put(key, touched);
+    return touched;
+  }
+
+  synchronized long totalBytes() {
+    return totalBytes;
+  }
+
+  private void evict() {
+    Iterator<CachedImage> eldest = index.values().iterator();
+    while (totalBytes > maxBytes && eldest.hasNext()) {
+      CachedImage image = eldest.next();
+      eldest.remove();
+      totalBytes -= image.size();
+      try {
+        Files.deleteIfExists(image.file());
+      } catch (IOException e) {
+        log.warn("Could not evict {}: {}", image.file(), e.getMessage());
+      }
+    }
+  }
+
+  static String contentType(String extension) {
+    return switch (extension) {
+      case "png"  -> "image/png";
+      case "jpg"  -> "image/jpeg";
+      case "webp" -> "image/webp";
+      default     -> "application/octet-stream";
+    };
+  }
+
+  static String sha256(byte[] data) {
+    try {
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static FileTime lastModified(Path file) {
+    try {
+      return Files.getLastModifiedTime(file);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
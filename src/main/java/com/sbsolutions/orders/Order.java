@@ -0,0 +1,36 @@
+package com.sbsolutions.orders;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * One checkout as written to order-data.
+ *
+ * @param id       idempotency key, chosen once per checkout: sending the order again (a second
+ *                 click, a retry, a replay after restart) is recognised as the same order both by
+ *                 {@link OrderPipeline} and by order-data
+ * @param placedAt when the customer placed the order
+ * @param lines    ordered items, never empty
+ */
+public record Order(String id, Instant placedAt, List<Line> lines) {
+
+  /**
+   * @param itemKey     {@link com.sbsolutions.services.MenuItem#key()} of the product
+   * @param description product name as shown when ordering
+   * @param quantity    number ordered, at least one
+   */
+  public record Line(String itemKey, String description, int quantity) {
+    public Line {
+      Objects.requireNonNull(itemKey, "itemKey");
+      if (quantity < 1) throw new IllegalArgumentException("quantity must be at least 1: " + quantity);
+    }
+  }
+
+  public Order {
+    Objects.requireNonNull(id, "id");
+    Objects.requireNonNull(placedAt, "placedAt");
+    if (lines.isEmpty()) throw new IllegalArgumentException("order " + id + " has no lines");
+    lines = List.copyOf(lines);
+  }
+}
@@ -0,0 +1,124 @@
+package com.sbsolutions.orders;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes batches of orders to order-data.
+ *
+ * <p>{@link #write} sends {@code POST <orders.api.url>} with
+ * <pre>
+ * {"orders": [{"id": "9f1c…", "placedAt": "2026-10-17T11:58:03Z",
+ *              "lines": [{"itemKey": "Glazed", "description": "Glazed", "quantity": 2}]}]}
+ * </pre>
+ * and expects a {@code 200} with one result per order it decided:
+ * <pre>
+ * {"results": [{"id": "9f1c…", "status": "confirmed", "reference": "A-1042"},
+ *              {"id": "77ab…", "status": "rejected", "reason": "item sold out"}]}
+ * </pre>
+ * Order-data must treat {@code id} as an idempotency key and answer a repeated order with its
+ * first decision, as orders are sent again after errors and restarts.
+ *
+ * <p>Orders missing from the answer are undecided and sent again. Only {@code 400}, {@code 409}
+ * and {@code 422}, which are about the orders themselves, reject every order in the batch.
+ * Every other status, connection errors and timeouts throw {@link IOException}, so the whole
+ * batch is kept and retried: a wrong {@code orders.api.url} ({@code 404}, {@code 405}) or
+ * expired credentials ({@code 401}, {@code 403}) must not throw away real orders. Those are
+ * logged as errors, since they need someone to fix the configuration.
+ */
+@Component
+public class OrderApi {
+
+  private static final Logger log = LoggerFactory.getLogger(OrderApi.class);
+
+  private record WireOrder(String id, String placedAt, List<Order.Line> lines) {}
+
+  private record WireBatch(List<WireOrder> orders) {}
+
+  private final URI          url;
+  private final Duration     timeout;
+  private final ObjectMapper mapper;
+  private final HttpClient   http;
+
+  public OrderApi(
+      @Value("${orders.api.url:${ORDER_DATA_REST_URL}/orders/batch}") String url,
+      @Value("${orders.api.timeout:PT10S}") Duration timeout,
+      ObjectMapper mapper) {
+    this.url     = URI.create(url);
+    this.timeout = timeout;
+    this.mapper  = mapper;
+    this.http    = HttpClient.newBuilder().connectTimeout(timeout).build();
+  }
+
+  /**
+   * Sends {@code orders} and returns order-data's decision per order id.
+   *
+   * @throws IOException when the batch should be sent again
+   */
+  public Map<String, OrderConfirmation> write(List<Order> orders) throws IOException, InterruptedException {
+    HttpRequest request = HttpRequest.newBuilder(url)
+        .timeout(timeout)
+        .header("Content-Type", "application/json")
+        .header("Accept", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(body(orders)))
+        .build();
+    HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+    int status = response.statusCode();
+    if (status == 200) {
+      return parse(response.body(), orders.stream().map(Order::id).collect(Collectors.toSet()));
+    }
+    if (status != 400 && status != 409 && status != 422) {
+      if (status < 500 && status != 408 && status != 429) {
+        log.error("order-data answered {} to {}; check orders.api.url and its credentials", status, url);
+      }
+      throw new IOException("order-data answered " + status);
+    }
+    log.warn("order-data refused a batch of {} order(s) with {}", orders.size(), status);
+    Map<String, OrderConfirmation> rejected = new HashMap<>();
+    for (Order order : orders) {
+      rejected.put(order.id(), OrderConfirmation.rejected(order.id(), "HTTP " + status));
+    }
+    return rejected;
+  }
+
+  String body(List<Order> orders) throws IOException {
+    List<WireOrder> wire = orders.stream()
+        .map(order -> new WireOrder(order.id(), order.placedAt().toString(), order.lines()))
+        .toList();
+    return mapper.writeValueAsString(new WireBatch(wire));
+  }
+
+  /** Decisions in {@code body} for the orders {@code sent}; results for other ids are ignored. */
+  Map<String, OrderConfirmation> parse(String body, Set<String> sent) throws IOException {
+    Map<String, OrderConfirmation> decided = new HashMap<>();
+    for (JsonNode result : mapper.readTree(body).path("results")) {
+      String id = result.path("id").asText();
+      if (!sent.contains(id)) continue;
+      switch (result.path("status").asText()) {
+        case "confirmed" -> decided.put(id, OrderConfirmation.confirmed(id, text(result, "reference")));
+        case "rejected"  -> decided.put(id, OrderConfirmation.rejected(id, text(result, "reason")));
+        default -> log.debug("Order {} has unknown status {}; sending it again", id, result.path("status"));
+      }
+    }
+    return decided;
+  }
+
+  private static String text(JsonNode node, String field) {
+    return node.hasNonNull(field) ? node.get(field).asText() : null;
+  }
+}
@@ -0,0 +1,26 @@
+package com.sbsolutions.orders;
+
+/**
+ * Outcome of one {@link Order} as decided by order-data.
+ *
+ * @param orderId   {@link Order#id()}
+ * @param status    whether order-data took the order
+ * @param reference order-data's reference for a confirmed order, or {@code null}
+ * @param reason    why a rejected order was refused, or {@code null}
+ */
+public record OrderConfirmation(String orderId, Status status, String reference, String reason) {
+
+  public enum Status { CONFIRMED, REJECTED }
+
+  static OrderConfirmation confirmed(String orderId, String reference) {
+    return new OrderConfirmation(orderId, Status.CONFIRMED, reference, null);
+  }
+
+  static OrderConfirmation rejected(String orderId, String reason) {
+    return new OrderConfirmation(orderId, Status.REJECTED, null, reason);
+  }
+
+  public boolean isConfirmed() {
+    return status == Status.CONFIRMED;
+  }
+}
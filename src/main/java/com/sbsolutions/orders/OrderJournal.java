@@ -0,0 +1,271 @@
+package com.sbsolutions.orders;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Local write-ahead journal of the orders {@link OrderPipeline} has accepted but order-data has
+ * not decided yet, so none is lost when the node restarts.
+ *
+ * <p>File layout, big-endian:
+ * <pre>
+ *   int    magic 'OMOJ'
+ *   short  format version
+ *   then records:
+ *     byte   type (1 = placed, 2 = decided)
+ *     int    payload length
+ *     bytes  payload: placed = order id, placedAt (epoch millis), int line count, then lines;
+ *                     decided = order id
+ *     int    CRC32 of type, length and payload
+ * </pre>
+ * Strings are written with {@link DataOutputStream#writeUTF}. Each append is forced to disk
+ * before it returns; {@link #decided} writes and forces a whole batch at once.
+ *
+ * <p>{@link #open} replays the file, stopping at the first torn or corrupt record (a crash
+ * mid-append), and rewrites it with only the undecided orders, temp file and atomic move as in
+ * {@link com.sbsolutions.services.MenuSnapshotStore}. Once the file grows past
+ * {@code orders.journal.compact-bytes} (or twice its size after the last compaction, whichever
+ * is larger) it is compacted the same way after the next decisions: truncated to the header
+ * when no order is undecided, rewritten with only the undecided orders otherwise. It therefore
+ * stays small under steady traffic, not only when the queue drains.
+ * A file with another magic or format version is moved aside rather than overwritten.
+ */
+@Component
+public class OrderJournal {
+
+  private static final Logger log = LoggerFactory.getLogger(OrderJournal.class);
+
+  static final int   MAGIC          = 0x4F4D4F4A; // "OMOJ"
+  static final short FORMAT_VERSION = 1;
+  static final byte  PLACED         = 1;
+  static final byte  DECIDED        = 2;
+
+  private static final int HEADER = Integer.BYTES + Short.BYTES;
+
+  private final Path        file;
+  private final long        compactBytes;
+  private final Map<String, Order> undecided = new LinkedHashMap<>();
+  private FileChannel              channel;
+  private long                     compactedSize;
+
+  public OrderJournal(
+      @Value("${orders.journal.file:${java.io.tmpdir}/order-menu/orders.journal}") Path file,
+      @Value("${orders.journal.compact-bytes:1048576}") long compactBytes) {
+    this.file         = file;
+    this.compactBytes = compactBytes;
+  }
+
+  /**
+   * Opens the journal for appending and returns the orders it holds that were never decided,
+   * oldest first. Must be called once before anything is appended.
+   */
+  public synchronized List<Order> open() throws IOException {
+    if (channel != null) throw new IllegalStateException("journal already open");
+    Map<String, Order> pending = replay();
+    write(file, pending.values());
+    channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    compactedSize = channel.size();
+    undecided.putAll(pending);
+    if (!pending.isEmpty()) log.info("Recovered {} undelivered order(s) from {}", pending.size(), file);
+    return List.copyOf(pending.values());
+  }
+
+  /** Durably records that {@code order} was accepted. */
+  public synchronized void placed(Order order) throws IOException {
+    append(record(PLACED, encode(order)));
+    undecided.put(order.id(), order);
+  }
+
+  /** Durably records that order-data decided the orders {@code ids}. */
+  public synchronized void decided(Collection<String> ids) throws IOException {
+    if (ids.isEmpty()) return;
+    ByteArrayOutputStream records = new ByteArrayOutputStream(ids.size() * 64);
+    for (String id : ids) {
+      records.write(record(DECIDED, utf(id)));
+    }
+    append(records.toByteArray());
+    undecided.keySet().removeAll(ids);
+    if (channel.size() > Math.max(compactBytes, 2 * compactedSize)) compact();
+  }
+
+  private void compact() throws IOException {
+    long before = channel.size();
+    if (undecided.isEmpty()) {
+      channel.truncate(HEADER);
+      channel.force(true);
+    } else {
+      write(file, undecided.values());
+      channel.close();
+      channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+    compactedSize = channel.size();
+    log.debug("Compacted order journal {} from {} to {} bytes ({} undecided)",
+        file, before, compactedSize, undecided.size());
+  }
+
+  /** Number of orders recorded as placed but not decided. */
+  public synchronized int size() {
+    return undecided.size();
+  }
+
+  public synchronized void close() {
+    if (channel == null) return;
+    try {
+      channel.close();
+    } catch (IOException e) {
+      log.warn("Could not close order journal {}: {}", file, e.getMessage());
+    }
+    channel = null;
+  }
+
+  private void append(byte[] data) throws IOException {
+    if (channel == null) throw new IllegalStateException("journal not open");
+    ByteBuffer buffer = ByteBuffer.wrap(data);
+    while (buffer.hasRemaining()) channel.write(buffer);
+    channel.force(false);
+  }
+
+  // ── Replay ─────────────────────────────────────────────────
+
+  private Map<String, Order> replay() throws IOException {
+    ByteBuffer in;
+    try {
+      in = ByteBuffer.wrap(Files.readAllBytes(file));
+    } catch (NoSuchFileException e) {
+      return new LinkedHashMap<>();
+    }
+    if (in.remaining() < HEADER || in.getInt() != MAGIC || in.getShort() != FORMAT_VERSION) {
+      Path aside = file.resolveSibling(file.getFileName() + "." + System.currentTimeMillis() + ".unknown");
+      Files.move(file, aside);
+      log.warn("Order journal {} has an unknown format; moved it to {}", file, aside);
+      return new LinkedHashMap<>();
+    }
+    return read(in);
+  }
+
+  /** Undecided orders in {@code in}, which is positioned after the header. */
+  static Map<String, Order> read(ByteBuffer in) {
+    Map<String, Order> pending = new LinkedHashMap<>();
+    while (in.hasRemaining()) {
+      int start = in.position();
+      try {
+        byte type = in.get();
+        int length = in.getInt();
+        if (length < 0 || length > in.remaining() - Integer.BYTES) throw new IOException("corrupt record length");
+        byte[] payload = new byte[length];
+        in.get(payload);
+        CRC32 crc = new CRC32();
+        crc.update(in.duplicate().position(start).limit(in.position()));
+        if ((int) crc.getValue() != in.getInt()) throw new IOException("checksum mismatch");
+        switch (type) {
+          case PLACED -> {
+            Order order = decode(payload);
+            pending.put(order.id(), order);
+          }
+          case DECIDED -> pending.remove(new DataInputStream(new ByteArrayInputStream(payload)).readUTF());
+          default -> throw new IOException("unknown record type " + type);
+        }
+      } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+        log.warn("Order journal ends in a damaged record at byte {} ({}); ignoring the rest",
+            start, e.getMessage());
+        break;
+      }
+    }
+    return pending;
+  }
+
+  /** Replaces {@code target} with a journal holding {@code orders}. */
+  static void write(Path target, Collection<Order> orders) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(HEADER + orders.size() * 256);
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.writeInt(MAGIC);
+    out.writeShort(FORMAT_VERSION);
+    for (Order order : orders) {
+      out.write(record(PLACED, encode(order)));
+    }
+    out.flush();
+
+    Path dir = target.toAbsolutePath().getParent();
+    Files.createDirectories(dir);
+    Path tmp = Files.createTempFile(dir, target.getFileName().toString(), ".tmp");
+    try {
+      try (FileChannel tmpChannel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+        while (buffer.hasRemaining()) tmpChannel.write(buffer);
+        tmpChannel.force(true);
+      }
+      Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
+  }
+
+  // ── Encoding ───────────────────────────────────────────────
+
+  static byte[] record(byte type, byte[] payload) {
+    ByteBuffer record = ByteBuffer.allocate(1 + Integer.BYTES + payload.length + Integer.BYTES);
+    record.put(type).putInt(payload.length).put(payload);
+    CRC32 crc = new CRC32();
+    crc.update(record.array(), 0, record.position());
+    record.putInt((int) crc.getValue());
+    return record.array();
+  }
+
+  static byte[] encode(Order order) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.writeUTF(order.id());
+    out.writeLong(order.placedAt().toEpochMilli());
+    out.writeInt(order.lines().size());
+    for (Order.Line line : order.lines()) {
+      out.writeUTF(line.itemKey());
+      out.writeUTF(line.description() == null ? "" : line.description());
+      out.writeInt(line.quantity());
+    }
+    out.flush();
+    return bytes.toByteArray();
+  }
+
+  static Order decode(byte[] payload) throws IOException {
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+    String id = in.readUTF();
+    Instant placedAt = Instant.ofEpochMilli(in.readLong());
+    int count = in.readInt();
+    if (count < 0 || count > payload.length) throw new IOException("corrupt line count " + count);
+    List<Order.Line> lines = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      lines.add(new Order.Line(in.readUTF(), in.readUTF(), in.readInt()));
+    }
+    return new Order(id, placedAt, lines);
+  }
+
+  private static byte[] utf(String value) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(value.length() + 2);
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.writeUTF(value);
+    out.flush();
+    return bytes.toByteArray();
+  }
+}
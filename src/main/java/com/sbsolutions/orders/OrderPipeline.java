@@ -0,0 +1,262 @@
+package com.sbsolutions.orders;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Write-behind submission of orders to order-data.
+ *
+ * <p>{@link #submit} records the order in the {@link OrderJournal}, queues it and returns at
+ * once; the confirmation completes the returned future later. A checkout therefore waits for
+ * one local append, never for order-data, and a UI holds its session lock only that long.
+ *
+ * <p>One writer thread sends the queue to order-data through {@link OrderApi}, up to
+ * {@code orders.batch-size} orders per request. Batches form from whatever queued up while the
+ * previous request was in flight, so a quiet shop sends each order alone and a lunch rush is
+ * folded into few requests. Undecided orders are sent again after a backoff that doubles from
+ * {@code orders.retry.initial} to {@code orders.retry.max} with random jitter, topped up with
+ * newly queued orders each time. Decided orders are marked in the journal before their futures
+ * complete; orders still undecided at shutdown are sent again on the next start. An order that
+ * stays undecided for {@code orders.retry.requeue-after} attempts goes to the back of the
+ * queue, so it cannot hold its batch slot, or the backoff, for the orders behind it. Any
+ * unexpected error in the writer counts as a failed attempt; the writer keeps running.
+ *
+ * <p>{@link Order#id()} is the idempotency key: submitting an order that is still pending
+ * returns the same outcome, and one decided recently returns its decision without sending it
+ * again. At most {@code orders.queue-capacity} orders are pending; beyond that
+ * {@link #submit} fails with {@link OrderQueueFullException} and nothing is journaled.
+ *
+ * <p>Futures complete on the writer thread, so callers should hand off at once (as
+ * {@code ui.access} does) rather than block in a callback.
+ */
+@Component
+public class OrderPipeline {
+
+  private static final Logger log = LoggerFactory.getLogger(OrderPipeline.class);
+
+  /** Decided order ids remembered for idempotent resubmission. */
+  static final int RECENT = 1024;
+
+  /** A queued order; {@code attempts} is only touched by the writer. */
+  private static final class Pending {
+    final Order                                order;
+    final long                                 submittedAt;
+    final CompletableFuture<OrderConfirmation> result = new CompletableFuture<>();
+    int                                        attempts;
+
+    Pending(Order order, long submittedAt) {
+      this.order       = order;
+      this.submittedAt = submittedAt;
+    }
+  }
+
+  private final OrderJournal  journal;
+  private final OrderApi      api;
+  private final MeterRegistry registry;
+  private final int           capacity;
+  private final int           batchSize;
+  private final long          retryInitialNanos;
+  private final long          retryMaxNanos;
+  private final int           requeueAfter;
+  private final Counter       retries;
+  private final Counter       queueFull;
+
+  private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+  private final Map<String, Pending> pending = new HashMap<>();
+  private final Map<String, OrderConfirmation> recent = new LinkedHashMap<>(RECENT, 0.75f, false) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, OrderConfirmation> eldest) {
+      return size() > RECENT;
+    }
+  };
+  private Thread writer;
+
+  public OrderPipeline(OrderJournal journal, OrderApi api, MeterRegistry registry,
+      @Value("${orders.queue-capacity:1000}") int capacity,
+      @Value("${orders.batch-size:25}") int batchSize,
+      @Value("${orders.retry.initial:PT0.5S}") Duration retryInitial,
+      @Value("${orders.retry.max:PT30S}") Duration retryMax,
+      @Value("${orders.retry.requeue-after:5}") int requeueAfter) {
+    this.journal           = journal;
+    this.api               = api;
+    this.registry          = registry;
+    this.capacity          = capacity;
+    this.batchSize         = batchSize;
+    this.retryInitialNanos = retryInitial.toNanos();
+    this.retryMaxNanos     = retryMax.toNanos();
+    this.requeueAfter      = requeueAfter;
+    this.retries = Counter.builder("orders.retries")
+        .description("Order batches sent again after an error or an incomplete answer")
+        .register(registry);
+    this.queueFull = Counter.builder("orders.queue.full")
+        .description("Orders refused because the queue was full")
+        .register(registry);
+    Gauge.builder("orders.pending", this, OrderPipeline::size)
+        .description("Orders accepted but not yet decided by order-data")
+        .register(registry);
+  }
+
+  /** Queues the orders the journal still holds and starts the writer. */
+  @PostConstruct
+  public void start() throws IOException {
+    List<Order> recovered = journal.open();
+    synchronized (this) {
+      for (Order order : recovered) enqueue(order);
+    }
+    writer = Thread.ofVirtual().name("order-writer").start(this::run);
+  }
+
+  /** Stops the writer; orders not decided yet stay in the journal. */
+  @PreDestroy
+  public void stop() throws InterruptedException {
+    if (writer != null) {
+      writer.interrupt();
+      writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+    journal.close();
+  }
+
+  /**
+   * Accepts {@code order} for delivery. The future completes with order-data's decision, or
+   * fails at once with {@link OrderQueueFullException} or, when the journal cannot be written,
+   * {@link UncheckedIOException}.
+   */
+  public synchronized CompletableFuture<OrderConfirmation> submit(Order order) {
+    Pending existing = pending.get(order.id());
+    if (existing != null) return existing.result.copy();
+    OrderConfirmation decided = recent.get(order.id());
+    if (decided != null) return CompletableFuture.completedFuture(decided);
+    if (pending.size() >= capacity) {
+      queueFull.increment();
+      return CompletableFuture.failedFuture(new OrderQueueFullException(capacity));
+    }
+    try {
+      journal.placed(order);
+    } catch (IOException e) {
+      log.error("Could not journal order {}: {}", order.id(), e.getMessage());
+      return CompletableFuture.failedFuture(new UncheckedIOException(e));
+    }
+    return enqueue(order).result.copy();
+  }
+
+  /** Orders accepted but not decided yet. */
+  public synchronized int size() {
+    return pending.size();
+  }
+
+  private Pending enqueue(Order order) {
+    Pending entry = new Pending(order, System.nanoTime());
+    pending.put(order.id(), entry);
+    queue.add(entry);
+    return entry;
+  }
+
+  // ── Writer ─────────────────────────────────────────────────
+
+  private void run() {
+    List<Pending> batch = new ArrayList<>(batchSize);
+    int failures = 0;
+    try {
+      while (!Thread.currentThread().isInterrupted()) {
+        if (batch.isEmpty()) batch.add(queue.take());
+        queue.drainTo(batch, batchSize - batch.size());
+        int sent = batch.size();
+        try {
+          deliver(batch);
+        } catch (RuntimeException e) {
+          log.error("Order writer failed on {} order(s); sending them again", batch.size(), e);
+        }
+        if (batch.isEmpty()) {
+          failures = 0;
+          continue;
+        }
+        // order-data answered for some orders: it is up, so the rest need no long backoff
+        if (batch.size() < sent) failures = 0;
+        retries.increment();
+        requeueStuck(batch);
+        TimeUnit.NANOSECONDS.sleep(backoff(failures++));
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    log.debug("Order writer stopped with {} order(s) undecided", size());
+  }
+
+  /** Sends {@code batch} once and removes the orders order-data decided from it. */
+  private void deliver(List<Pending> batch) throws InterruptedException {
+    Map<String, OrderConfirmation> decisions;
+    try {
+      decisions = api.write(batch.stream().map(entry -> entry.order).toList());
+    } catch (IOException e) {
+      log.warn("Could not send {} order(s) to order-data: {}", batch.size(), e.getMessage());
+      return;
+    }
+    List<Pending> decided = batch.stream().filter(entry -> decisions.containsKey(entry.order.id())).toList();
+    if (decided.isEmpty()) return;
+    try {
+      journal.decided(decided.stream().map(entry -> entry.order.id()).toList());
+    } catch (IOException e) {
+      // order-data answers the replay after a restart with the same decisions
+      log.warn("Could not journal {} order decision(s): {}", decided.size(), e.getMessage());
+    }
+    for (Pending entry : decided) {
+      finish(entry, decisions.get(entry.order.id()));
+      batch.remove(entry);
+    }
+  }
+
+  /** Moves orders that stayed undecided for {@code requeueAfter} attempts to the back of the queue. */
+  private void requeueStuck(List<Pending> batch) {
+    for (Iterator<Pending> it = batch.iterator(); it.hasNext(); ) {
+      Pending entry = it.next();
+      if (++entry.attempts < requeueAfter) continue;
+      log.warn("Order {} still undecided after {} attempts; moving it to the back of the queue",
+          entry.order.id(), entry.attempts);
+      entry.attempts = 0;
+      it.remove();
+      queue.add(entry);
+    }
+  }
+
+  private void finish(Pending entry, OrderConfirmation confirmation) {
+    synchronized (this) {
+      pending.remove(confirmation.orderId());
+      recent.put(confirmation.orderId(), confirmation);
+    }
+    Timer.builder("orders.confirmation")
+        .description("Time from accepting an order to order-data's decision")
+        .tag("status", confirmation.status().name().toLowerCase())
+        .publishPercentileHistogram()
+        .register(registry)
+        .record(System.nanoTime() - entry.submittedAt, TimeUnit.NANOSECONDS);
+    entry.result.complete(confirmation);
+  }
+
+  /** Delay before retry {@code failures + 1}: half the doubled delay plus up to as much again. */
+  long backoff(int failures) {
+    long ceiling = failures >= 30 ? retryMaxNanos : Math.min(retryMaxNanos, retryInitialNanos << failures);
+    return ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+  }
+}
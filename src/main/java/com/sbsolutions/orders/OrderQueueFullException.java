@@ -0,0 +1,12 @@
+package com.sbsolutions.orders;
+
+/**
+ * Fails a submission when {@link OrderPipeline} already holds as many undelivered orders as it
+ * may; nothing was journaled, so the same order can simply be submitted again later.
+ */
+public class OrderQueueFullException extends RuntimeException {
+
+  public OrderQueueFullException(int capacity) {
+    super("order queue full (" + capacity + " orders pending)", null, false, false);
+  }
+}
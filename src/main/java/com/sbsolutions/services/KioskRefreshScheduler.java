@@ -0,0 +1,163 @@
+package com.sbsolutions.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Spreads kiosk refreshes over time instead of running them all at once.
+ *
+ * <p>Each kiosk gets a {@link Slot} with its own fixed offset, drawn once from
+ * {@code [0, kiosk.refresh.jitter]}. A value offered to the slot is delivered that long after
+ * the offer, so kiosks that attached together no longer refresh in the same instant. Offers
+ * that arrive while a delivery is still pending replace its value instead of queueing a second
+ * refresh: the kiosk only ever renders the latest menu.
+ *
+ * <p>Deliveries run on virtual threads, at most {@code kiosk.refresh.max-concurrent} at a time.
+ * A delivery holds its permit until the kiosk's {@code ui.access} task has run (bounded by
+ * {@code kiosk.refresh.timeout}), so one slow UI occupies one permit rather than delaying
+ * every other kiosk behind it.
+ *
+ * <p>Meters: {@code kiosk.refresh.queue} (deliveries waiting for their time or a permit),
+ * {@code kiosk.refresh.lateness} (start of a delivery past its due time) and
+ * {@code kiosk.refresh.coalesced} (offers folded into a pending delivery).
+ */
+@Component
+public class KioskRefreshScheduler {
+
+  private static final Logger log = LoggerFactory.getLogger(KioskRefreshScheduler.class);
+
+  private final long      jitterNanos;
+  private final Duration  timeout;
+  private final Semaphore permits;
+  private final Timer     lateness;
+  private final Counter   coalesced;
+  private final AtomicInteger queued = new AtomicInteger();
+
+  private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(task -> {
+    Thread thread = new Thread(task, "kiosk-refresh-timer");
+    thread.setDaemon(true);
+    return thread;
+  });
+  private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+
+  public KioskRefreshScheduler(MeterRegistry registry,
+      @Value("${kiosk.refresh.jitter:PT3S}") Duration jitter,
+      @Value("${kiosk.refresh.max-concurrent:4}") int maxConcurrent,
+      @Value("${kiosk.refresh.timeout:PT10S}") Duration timeout) {
+    this.jitterNanos = jitter.toNanos();
+    this.timeout     = timeout;
+    this.permits     = new Semaphore(maxConcurrent);
+    this.lateness = Timer.builder("kiosk.refresh.lateness")
+        .description("Delay of a kiosk refresh past its jittered due time")
+        .publishPercentileHistogram()
+        .register(registry);
+    this.coalesced = Counter.builder("kiosk.refresh.coalesced")
+        .description("Kiosk refreshes folded into one already pending")
+        .register(registry);
+    Gauge.builder("kiosk.refresh.queue", queued, AtomicInteger::get)
+        .description("Kiosk refreshes waiting to run")
+        .register(registry);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    timer.shutdownNow();
+    workers.shutdownNow();
+  }
+
+  /**
+   * Creates the slot of one kiosk. {@code delivery} hands a value to the kiosk and returns a
+   * future that completes once the kiosk has applied it (typically the one from
+   * {@code UI.access}).
+   */
+  public <T> Slot<T> slot(Function<T, Future<?>> delivery) {
+    long offset = jitterNanos == 0 ? 0 : ThreadLocalRandom.current().nextLong(jitterNanos + 1);
+    return slot(delivery, Duration.ofNanos(offset));
+  }
+
+  /** Creates a slot with a fixed {@code offset} instead of a random one. */
+  <T> Slot<T> slot(Function<T, Future<?>> delivery, Duration offset) {
+    return new Slot<>(delivery, offset.toNanos());
+  }
+
+  /** Refreshes waiting for their due time or a permit. */
+  public int queued() {
+    return queued.get();
+  }
+
+  /** One kiosk's pending refresh; see {@link KioskRefreshScheduler}. */
+  public final class Slot<T> {
+
+    private final Function<T, Future<?>> delivery;
+    private final long                   offsetNanos;
+    private final AtomicReference<T>    pending = new AtomicReference<>();
+    private volatile boolean             cancelled;
+
+    private Slot(Function<T, Future<?>> delivery, long offsetNanos) {
+      this.delivery    = delivery;
+      this.offsetNanos = offsetNanos;
+    }
+
+    /** Schedules delivery of {@code value}, or replaces the value of a pending delivery. */
+    public void offer(T value) {
+      if (cancelled) return;
+      if (pending.getAndSet(value) != null) {
+        coalesced.increment();
+        return;
+      }
+      queued.incrementAndGet();
+      long due = System.nanoTime() + offsetNanos;
+      timer.schedule(() -> workers.execute(() -> deliver(due)), offsetNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** Drops a pending delivery and ignores later offers. */
+    public void cancel() {
+      cancelled = true;
+      if (pending.getAndSet(null) != null) queued.decrementAndGet();
+    }
+
+    private void deliver(long due) {
+      try {
+        permits.acquire();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      try {
+        T value = pending.getAndSet(null);
+        if (value == null) return;
+        queued.decrementAndGet();
+        lateness.record(Math.max(0, System.nanoTime() - due), TimeUnit.NANOSECONDS);
+        delivery.apply(value).get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+      } catch (TimeoutException e) {
+        log.debug("Kiosk refresh still pending after {} ms; releasing its permit", timeout.toMillis());
+      } catch (ExecutionException | RuntimeException e) {
+        log.warn("Kiosk refresh failed: {}", e.getMessage());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } finally {
+        permits.release();
+      }
+    }
+  }
+}
@@ -0,0 +1,99 @@
+package com.sbsolutions.services;
+
+import com.vaadin.flow.shared.Registration;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fans a new {@link MenuSnapshot} out to every registered kiosk and subscriber.
+ *
+ * <p>Kiosk views {@link #register} on attach and remove the registration on detach.
+ * {@link MenuSnapshotService} calls {@link #broadcast} once per changed menu version; each kiosk
+ * listener hands the snapshot to {@code UI.access} and returns its future. Kiosk deliveries go
+ * through {@link KioskRefreshScheduler}, which spreads them over the jitter window, coalesces
+ * versions a kiosk has not rendered yet, and bounds how many kiosks render at once.
+ *
+ * <p>Everything else that follows the menu (search index, {@code /display} stream, ordering
+ * screens) {@link #subscribe}s instead: subscribers are called directly on the broadcasting
+ * thread, take no render permit, get no jitter and are not counted as kiosks. They must only
+ * hand the work off or do a little of it.
+ *
+ * <p>A refresh that finds the menu unchanged publishes no version, only a {@link #heartbeat}, so
+ * screens can still show when the menu was last confirmed. Heartbeat listeners are called the
+ * same way as subscribers.
+ */
+@Component
+public class MenuBroadcaster {
+
+  private static final Logger log = LoggerFactory.getLogger(MenuBroadcaster.class);
+
+  private final KioskRefreshScheduler scheduler;
+  private final Set<KioskRefreshScheduler.Slot<MenuSnapshot>> slots = new CopyOnWriteArraySet<>();
+  private final Set<Consumer<MenuSnapshot>> subscribers = new CopyOnWriteArraySet<>();
+  private final Set<Consumer<MenuSnapshot>> heartbeats  = new CopyOnWriteArraySet<>();
+
+  public MenuBroadcaster(KioskRefreshScheduler scheduler) {
+    this.scheduler = scheduler;
+  }
+
+  /** Registers a kiosk; deliveries are scheduled by {@link KioskRefreshScheduler}. */
+  public Registration register(Function<MenuSnapshot, Future<?>> listener) {
+    KioskRefreshScheduler.Slot<MenuSnapshot> slot = scheduler.slot(listener);
+    slots.add(slot);
+    return () -> {
+      slots.remove(slot);
+      slot.cancel();
+    };
+  }
+
+  /** Registers a non-kiosk listener, called on the broadcasting thread for every version. */
+  public Registration subscribe(Consumer<MenuSnapshot> subscriber) {
+    Consumer<MenuSnapshot> entry = subscriber::accept; // distinct per call, so each can be removed
+    subscribers.add(entry);
+    return () -> subscribers.remove(entry);
+  }
+
+  /** Registers a listener called on the broadcasting thread for every {@link #heartbeat}. */
+  public Registration onHeartbeat(Consumer<MenuSnapshot> listener) {
+    Consumer<MenuSnapshot> entry = listener::accept;
+    heartbeats.add(entry);
+    return () -> heartbeats.remove(entry);
+  }
+
+  public void broadcast(MenuSnapshot snapshot) {
+    log.info("Broadcasting menu version {} to {} kiosk(s) and {} subscriber(s)",
+        snapshot.version(), slots.size(), subscribers.size());
+    for (Consumer<MenuSnapshot> subscriber : subscribers) {
+      try {
+        subscriber.accept(snapshot);
+      } catch (RuntimeException e) {
+        log.warn("Menu subscriber failed on version {}", snapshot.version(), e);
+      }
+    }
+    for (KioskRefreshScheduler.Slot<MenuSnapshot> slot : slots) {
+      slot.offer(snapshot);
+    }
+  }
+
+  /** Tells heartbeat listeners that {@code snapshot} was confirmed by a refresh without changing. */
+  public void heartbeat(MenuSnapshot snapshot) {
+    for (Consumer<MenuSnapshot> listener : heartbeats) {
+      try {
+        listener.accept(snapshot);
+      } catch (RuntimeException e) {
+        log.warn("Menu heartbeat listener failed on version {}", snapshot.version(), e);
+      }
+    }
+  }
+
+  /** Number of currently registered kiosks; subscribers are not counted. */
+  public int size() {
+    return slots.size();
+  }
+}
@@ -0,0 +1,137 @@
+package com.sbsolutions.services;
+
+import com.sbsolutions.order.models.ItemType;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.stereotype.Component;
+
+/**
+ * Flat, sortable read model of the current menu for the ordering screen.
+ *
+ * <p>Rebuilt lazily once per {@link MenuSnapshot} version: the product sections are flattened
+ * into one list of {@link Entry entries}, and each {@link Sort} order is computed the first time
+ * it is asked for and then shared by every session. A page is a walk over that presorted list,
+ * skipping entries outside the requested categories, so a lazy grid pays for the rows it shows
+ * rather than for the catalog, and no session holds a copy of it.
+ */
+@Component
+public class MenuCatalog {
+
+  /** Product categories of the menu, each the {@link ItemType}s one catalog call returns. */
+  public enum Category {
+    DONUTS("Donuts", MenuSnapshotService.DONUT_TYPES),
+    DONUT_HOLES("Donut Holes", MenuSnapshotService.DONUT_HOLE_TYPES),
+    ROLLS("Rolls", MenuSnapshotService.ROLL_TYPES);
+
+    private final String     label;
+    private final ItemType[] itemTypes;
+
+    Category(String label, ItemType[] itemTypes) {
+      this.label     = label;
+      this.itemTypes = itemTypes;
+    }
+
+    public String label() {
+      return label;
+    }
+
+    public List<ItemType> itemTypes() {
+      return List.of(itemTypes);
+    }
+  }
+
+  public enum Sort { MENU_ORDER, NAME }
+
+  /** One row of the catalog; {@code MIX} items appear once under each category they belong to. */
+  public record Entry(Category category, MenuItem item) {}
+
+  private static final Comparator<Entry> BY_NAME =
+      Comparator.comparing((Entry entry) -> entry.item().description(), String.CASE_INSENSITIVE_ORDER)
+          .thenComparing(Entry::category);
+
+  private final MenuSnapshotService menuSnapshotService;
+  private volatile Index            index = Index.EMPTY;
+
+  public MenuCatalog(MenuSnapshotService menuSnapshotService) {
+    this.menuSnapshotService = menuSnapshotService;
+  }
+
+  /**
+   * Entries {@code offset} to {@code offset + limit} of the catalog restricted to
+   * {@code categories} (all when empty), in {@code sort} order.
+   */
+  public List<Entry> fetch(Set<Category> categories, Sort sort, boolean descending, int offset, int limit) {
+    List<Entry> sorted = index().sorted(sort);
+    if (descending) sorted = sorted.reversed();
+    if (categories.isEmpty() || categories.size() == Category.values().length) {
+      int from = Math.min(offset, sorted.size());
+      return sorted.subList(from, Math.min(from + limit, sorted.size()));
+    }
+    return sorted.stream()
+        .filter(entry -> categories.contains(entry.category()))
+        .skip(offset)
+        .limit(limit)
+        .toList();
+  }
+
+  /** Number of entries in {@code categories} (all when empty). */
+  public int count(Set<Category> categories) {
+    Index current = index();
+    if (categories.isEmpty()) return current.menuOrder().size();
+    int count = 0;
+    for (Category category : categories) count += current.counts().getOrDefault(category, 0);
+    return count;
+  }
+
+  /** Every entry in menu order. */
+  public List<Entry> entries() {
+    return index().menuOrder();
+  }
+
+  /** Version of the snapshot the catalog currently reflects, or {@code -1} before the first fetch. */
+  public long version() {
+    return index().version();
+  }
+
+  private Index index() {
+    MenuSnapshot snapshot = menuSnapshotService.currentSnapshot().orElse(null);
+    Index current = index;
+    if (snapshot == null || snapshot.version() == current.version()) return current;
+    current = Index.of(snapshot);
+    index = current;
+    return current;
+  }
+
+  private record Index(long version, List<Entry> menuOrder, Map<Category, Integer> counts,
+      Map<Sort, List<Entry>> sorted) {
+
+    static final Index EMPTY = new Index(-1, List.of(), Map.of(), new ConcurrentHashMap<>());
+
+    static Index of(MenuSnapshot snapshot) {
+      List<Entry> entries = new ArrayList<>();
+      Map<Category, Integer> counts = new EnumMap<>(Category.class);
+      add(entries, counts, Category.DONUTS,      snapshot.donuts());
+      add(entries, counts, Category.DONUT_HOLES, snapshot.donutHoles());
+      add(entries, counts, Category.ROLLS,       snapshot.rolls());
+      return new Index(snapshot.version(), List.copyOf(entries), counts, new ConcurrentHashMap<>());
+    }
+
+    private static void add(List<Entry> entries, Map<Category, Integer> counts, Category category,
+        List<MenuItem> items) {
+      for (MenuItem item : items) entries.add(new Entry(category, item));
+      counts.put(category, items.size());
+    }
+
+    List<Entry> sorted(Sort sort) {
+      return switch (sort) {
+        case MENU_ORDER -> menuOrder;
+        case NAME -> sorted.computeIfAbsent(sort, s -> menuOrder.stream().sorted(BY_NAME).toList());
+      };
+    }
+  }
+}
@@ -0,0 +1,95 @@
+package com.sbsolutions.services;
+
+import com.sbsolutions.images.ImageVariant;
+import com.sbsolutions.order.models.Donut;
+import com.sbsolutions.util.KioskLogic;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Objects;
+
+/**
+ * Display-ready form of one product, compiled once per fetched catalog version.
+ *
+ * <p>Every value a kiosk card or special shows is computed here, so rendering only binds
+ * strings. Being a record, equality covers every displayed field, so lists of items double as
+ * the cache keys of the shared {@link com.sbsolutions.views.KioskFragments}.
+ *
+ * @param key              product identity across versions: the upstream product id, or the
+ *                         description for a product without one
+ * @param description      product name, never {@code null}
+ * @param imageUrl         resolved upstream image URL (see {@link KioskLogic#bestImageUrl}), or {@code null}
+ * @param cardImageUrl     {@code imageUrl} resized for product cards, or {@code null}
+ * @param specialImageUrl  {@code imageUrl} resized for the specials list, or {@code null}
+ * @param availableDays    raw available-days string, or {@code null}
+ * @param availability     {@code availableDays} as a day mask, see {@link KioskLogic#availabilityMask}
+ * @param daysText         {@code availableDays} formatted for display ({@code "Mon · Wed"}), or {@code null}
+ * @param sortKey          display order; items without an order sort last
+ * @param priceText        regular price with unit ({@code "$1.29 / each"}), or {@code null}
+ * @param specialPriceText special price with unit, or {@code null}
+ * @param specialPriceDate store-local day the special price applies to, or {@code null}
+ */
+public record MenuItem(
+    String key,
+    String description,
+    String imageUrl,
+    String cardImageUrl,
+    String specialImageUrl,
+    String availableDays,
+    int availability,
+    String daysText,
+    int sortKey,
+    String priceText,
+    String specialPriceText,
+    LocalDate specialPriceDate) {
+
+  /** Compiles {@code item}, resolving its special-price date in {@code storeZone}. */
+  public static MenuItem of(Donut item, ZoneId storeZone) {
+    String description = Objects.toString(item.getDescription(), "");
+    String days = KioskLogic.notBlank(item.getAvailableDays()) ? item.getAvailableDays() : null;
+    String imageUrl = KioskLogic.bestImageUrl(item);
+    return new MenuItem(
+        key(item, description),
+        description,
+        imageUrl,
+        ImageVariant.CARD.proxyUrl(imageUrl),
+        ImageVariant.SPECIAL.proxyUrl(imageUrl),
+        days,
+        KioskLogic.availabilityMask(days),
+        days != null ? days.replace(",", " · ") : null,
+        item.getOrder() == null ? Integer.MAX_VALUE : item.getOrder(),
+        priceText(item.getPrice(), item.getUnit()),
+        priceText(item.getSpecialPrice(), item.getUnit()),
+        item.getSpecialPriceDate() == null ? null
+            : item.getSpecialPriceDate().toInstant().atZone(storeZone).toLocalDate());
+  }
+
+  /**
+   * The upstream id, so products sharing a name stay apart and a renamed product keeps its
+   * identity. A {@code MIX} product is one id in both of its categories.
+   */
+  static String key(Donut item, String description) {
+    return item.getId() == null ? "name:" + description : "id:" + item.getId();
+  }
+
+  /** Returns {@code true} when the special price applies on {@code day}. */
+  public boolean isSpecialOn(LocalDate day) {
+    return day.equals(specialPriceDate);
+  }
+
+  /** Returns {@code true} when this item belongs in the specials list on {@code day}. */
+  public boolean isFeaturedOn(LocalDate day) {
+    return KioskLogic.isAvailableOn(availability, day.getDayOfWeek()) || isSpecialOn(day);
+  }
+
+  /** The price shown in the specials list on {@code day}. */
+  public String specialsPriceText(LocalDate day) {
+    return isSpecialOn(day) ? specialPriceText : priceText;
+  }
+
+  static String priceText(BigDecimal price, String unit) {
+    if (price == null) return null;
+    String text = String.format("$%.2f", price);
+    return KioskLogic.notBlank(unit) ? text + " / " + unit : text;
+  }
+}
@@ -0,0 +1,113 @@
+package com.sbsolutions.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Micrometer meters for the menu pipeline, exposed at {@code /actuator/prometheus} on the
+ * management port ({@code management.server.port}), not on the public one.
+ *
+ * <table>
+ *   <tr><td>{@code menu.upstream.call}</td><td>timer per order-data call, tagged {@code call} and {@code outcome}</td></tr>
+ *   <tr><td>{@code menu.refresh}</td><td>timer for one whole catalog fetch (all calls plus compile)</td></tr>
+ *   <tr><td>{@code menu.refresh.failures}</td><td>counter of failed calls and refreshes, tagged {@code cause}</td></tr>
+ *   <tr><td>{@code menu.fetch.probe}</td><td>counter of version probes, tagged {@code result} ({@code unchanged}/{@code changed})</td></tr>
+ *   <tr><td>{@code menu.fetch.compile}</td><td>counter per call of responses {@code reused} unchanged or {@code compiled}</td></tr>
+ *   <tr><td>{@code kiosk.attached}</td><td>gauge of kiosk UIs registered with {@link MenuBroadcaster}</td></tr>
+ *   <tr><td>{@code kiosk.refresh.*}</td><td>queue depth, lateness and coalesced refreshes, registered by {@link KioskRefreshScheduler}</td></tr>
+ *   <tr><td>{@code kiosk.render}</td><td>timer for the time a kiosk render holds the UI lock ({@code ui.access})</td></tr>
+ *   <tr><td>{@code kiosk.cards.rendered}</td><td>counter of cards and rows created by renders</td></tr>
+ *   <tr><td>{@code kiosk.push.rerendered}</td><td>distribution of cards and rows re-rendered per pushed render</td></tr>
+ *   <tr><td>{@code orders.*}</td><td>pending orders, confirmation latency, retries and refusals, registered by {@code OrderPipeline}</td></tr>
+ * </table>
+ *
+ * <p>{@code kiosk.push.rerendered} is a count of cards and rows, not bytes. Flow does not expose
+ * the serialized size of a push. A kiosk binds each section page and the sidebar to a shared
+ * HTML fragment and only sends a fragment whose content changed, so the count tracks what a push
+ * carries, but a card's size depends on its text.
+ */
+@Component
+public class MenuMetrics {
+
+  private final MeterRegistry       registry;
+  private final Timer               refresh;
+  private final Timer               render;
+  private final Counter             cardsRendered;
+  private final DistributionSummary pushRerendered;
+
+  public MenuMetrics(MeterRegistry registry, MenuBroadcaster broadcaster) {
+    this.registry = registry;
+    this.refresh = Timer.builder("menu.refresh")
+        .description("Time to fetch and compile one catalog version")
+        .publishPercentileHistogram()
+        .register(registry);
+    this.render = Timer.builder("kiosk.render")
+        .description("Time a kiosk render holds the UI lock")
+        .publishPercentileHistogram()
+        .register(registry);
+    this.cardsRendered = Counter.builder("kiosk.cards.rendered")
+        .description("Cards and price rows re-rendered by kiosk renders")
+        .register(registry);
+    this.pushRerendered = DistributionSummary.builder("kiosk.push.rerendered")
+        .description("Cards and price rows re-rendered per pushed kiosk render")
+        .baseUnit("items")
+        .register(registry);
+    Gauge.builder("kiosk.attached", broadcaster, MenuBroadcaster::size)
+        .description("Kiosk UIs currently attached")
+        .register(registry);
+  }
+
+  /** Records one order-data call; {@code error} is {@code null} on success. */
+  public void recordCall(String call, long nanos, Throwable error) {
+    Timer.builder("menu.upstream.call")
+        .description("Latency of one order-data call")
+        .tag("call", call)
+        .tag("outcome", error == null ? "success" : cause(error))
+        .publishPercentileHistogram()
+        .register(registry)
+        .record(nanos, TimeUnit.NANOSECONDS);
+    if (error != null) recordFailure(error);
+  }
+
+  public void recordRefresh(long nanos) {
+    refresh.record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  /** Counts one version probe; {@code unchanged} means the whole fetch was skipped. */
+  public void recordProbe(boolean unchanged) {
+    registry.counter("menu.fetch.probe", "result", unchanged ? "unchanged" : "changed").increment();
+  }
+
+  /** Counts one call response that was either reused from the last fetch or compiled anew. */
+  public void recordCompile(String call, boolean reused) {
+    registry.counter("menu.fetch.compile", "call", call, "result", reused ? "reused" : "compiled").increment();
+  }
+
+  /** Counts a failed call or refresh under its cause. */
+  public void recordFailure(Throwable error) {
+    registry.counter("menu.refresh.failures", "cause", cause(error)).increment();
+  }
+
+  /** Records one pushed kiosk render that held the UI lock for {@code nanos}. */
+  public void recordRender(long nanos, int created) {
+    render.record(nanos, TimeUnit.NANOSECONDS);
+    cardsRendered.increment(created);
+    pushRerendered.record(created);
+  }
+
+  /**
+   * {@code timeout} for timeouts, the rejection reason for {@link UpstreamRejectedException},
+   * otherwise the exception's simple class name.
+   */
+  static String cause(Throwable error) {
+    if (error instanceof TimeoutException) return "timeout";
+    if (error instanceof UpstreamRejectedException rejected) return rejected.reason();
+    return error.getClass().getSimpleName();
+  }
+}
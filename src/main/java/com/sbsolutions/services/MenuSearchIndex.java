@@ -0,0 +1,300 @@
+package com.sbsolutions.services;
+
+import com.sbsolutions.services.MenuCatalog.Entry;
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+/**
+ * Typeahead search over the menu: catalog items, plus the flavors and toppings that have a
+ * swatch under {@code images/flavors} and {@code images/toppings}.
+ *
+ * <p>Names are folded (lower case, accents removed) and split into words. The index is a sorted
+ * term dictionary with a posting list of document ids per term, rebuilt once per
+ * {@link MenuCatalog} version when {@link MenuBroadcaster} publishes it (or on the first search
+ * after). Searches read the current immutable index without locking, so concurrent sessions
+ * never wait on each other or on a rebuild.
+ *
+ * <p>An item listed under several categories ({@code MIX}) is indexed once, under the first;
+ * its {@link Hit#entry()} is that entry.
+ *
+ * <p>Every word of the query must match a word of the name: exactly, as a prefix (binary search
+ * in the dictionary), or, for words of four letters or more, as a prefix within one edit (two
+ * from seven letters; transpositions count as one). Hits are ranked by match quality, a bonus
+ * when the name starts with the first word, then shorter names first.
+ */
+@Component
+public class MenuSearchIndex {
+
+  private static final Logger log = LoggerFactory.getLogger(MenuSearchIndex.class);
+
+  public enum Kind { ITEM, FLAVOR, TOPPING }
+
+  /**
+   * One search result.
+   *
+   * @param kind     what was found
+   * @param name     display name
+   * @param imageUrl image (card image for items, swatch for flavors and toppings), or {@code null}
+   * @param entry    the catalog entry for {@link Kind#ITEM}, otherwise {@code null}
+   * @param score    rank; higher is better
+   */
+  public record Hit(Kind kind, String name, String imageUrl, Entry entry, int score) {}
+
+  /** A searchable name that is not a catalog item. */
+  record Extra(Kind kind, String name, String imageUrl) {}
+
+  /** Hits a typeahead shows. */
+  public static final int TYPEAHEAD_LIMIT = 10;
+
+  static final int EXACT       = 100;
+  static final int PREFIX      = 60;
+  static final int FUZZY       = 40;
+  static final int FIRST_WORD  = 15;
+  static final int FUZZY_FROM  = 4;
+  static final int FUZZY_TWO   = 7;
+
+  private final MenuCatalog     catalog;
+  private final MenuBroadcaster menuBroadcaster;
+  private final List<Extra>     extras;
+  private volatile Index        index;
+
+  public MenuSearchIndex(MenuCatalog catalog, MenuBroadcaster menuBroadcaster) {
+    this.catalog         = catalog;
+    this.menuBroadcaster = menuBroadcaster;
+    this.extras          = List.copyOf(swatches());
+    this.index           = Index.build(-1, List.of(), extras);
+  }
+
+  @PostConstruct
+  void listen() {
+    menuBroadcaster.subscribe(snapshot -> index());
+  }
+
+  /** The best {@code limit} hits for {@code query}, best first; empty for a blank query. */
+  public List<Hit> search(String query, int limit) {
+    return index().search(query, limit);
+  }
+
+  private Index index() {
+    Index current = index;
+    long version = catalog.version();
+    if (version == current.version()) return current;
+    long start = System.nanoTime();
+    current = Index.build(version, catalog.entries(), extras);
+    index = current;
+    log.debug("Search index for menu version {} built in {} µs ({} terms)",
+        version, (System.nanoTime() - start) / 1_000, current.terms.length);
+    return current;
+  }
+
+  /** Flavor and topping names from the swatch file names, e.g. {@code peanut_butter_swatch_100x20.png}. */
+  private static List<Extra> swatches() {
+    List<Extra> found = new ArrayList<>();
+    PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+    try {
+      for (Resource resource : resolver.getResources("classpath*:META-INF/resources/images/flavors/*.png")) {
+        found.add(swatch(Kind.FLAVOR, "images/flavors/", resource.getFilename()));
+      }
+      for (Resource resource : resolver.getResources("classpath*:META-INF/resources/images/toppings/*.png")) {
+        if (!"other.png".equals(resource.getFilename())) {
+          found.add(swatch(Kind.TOPPING, "images/toppings/", resource.getFilename()));
+        }
+      }
+    } catch (IOException e) {
+      log.warn("Could not list flavor and topping images: {}", e.getMessage());
+    }
+    return found;
+  }
+
+  static Extra swatch(Kind kind, String path, String fileName) {
+    String base = fileName.replaceFirst("\\.[^.]+$", "").replaceFirst("_swatch_\\d+x\\d+$", "");
+    StringBuilder name = new StringBuilder();
+    for (String word : base.split("_")) {
+      if (word.isEmpty()) continue;
+      if (!name.isEmpty()) name.append(' ');
+      name.append(Character.toUpperCase(word.charAt(0))).append(word.substring(1));
+    }
+    return new Extra(kind, name.toString(), path + fileName);
+  }
+
+  /** Lower-cased, accent-free words of {@code text}. */
+  static String[] words(String text) {
+    if (text == null || text.isBlank()) return new String[0];
+    String folded = Normalizer.normalize(text, Normalizer.Form.NFD)
+        .replaceAll("\\p{M}+", "")
+        .toLowerCase(Locale.ROOT);
+    return Arrays.stream(folded.split("[^\\p{L}\\p{N}]+")).filter(word -> !word.isEmpty()).toArray(String[]::new);
+  }
+
+  /** Immutable index of one catalog version. */
+  static final class Index {
+
+    private final long     version;
+    private final Hit[]    docs;
+    private final String[] firstWords;
+    private final String[] terms;
+    private final int[][]  postings;
+
+    private Index(long version, Hit[] docs, String[] firstWords, String[] terms, int[][] postings) {
+      this.version    = version;
+      this.docs       = docs;
+      this.firstWords = firstWords;
+      this.terms      = terms;
+      this.postings   = postings;
+    }
+
+    long version() {
+      return version;
+    }
+
+    static Index build(long version, List<Entry> entries, List<Extra> extras) {
+      List<Hit> docs = new ArrayList<>(entries.size() + extras.size());
+      Set<String> keys = new HashSet<>();
+      for (Entry entry : entries) {
+        if (!keys.add(entry.item().key())) continue;   // a MIX item is listed under each of its categories
+        docs.add(new Hit(Kind.ITEM, entry.item().description(), entry.item().cardImageUrl(), entry, 0));
+      }
+      for (Extra extra : extras) {
+        docs.add(new Hit(extra.kind(), extra.name(), extra.imageUrl(), null, 0));
+      }
+
+      TreeMap<String, List<Integer>> dictionary = new TreeMap<>();
+      String[] firstWords = new String[docs.size()];
+      for (int doc = 0; doc < docs.size(); doc++) {
+        String[] words = words(docs.get(doc).name());
+        firstWords[doc] = words.length == 0 ? "" : words[0];
+        for (String word : words) {
+          List<Integer> posting = dictionary.computeIfAbsent(word, w -> new ArrayList<>());
+          if (posting.isEmpty() || posting.getLast() != doc) posting.add(doc);
+        }
+      }
+      String[] terms = dictionary.keySet().toArray(String[]::new);
+      int[][] postings = new int[terms.length][];
+      for (int i = 0; i < terms.length; i++) {
+        postings[i] = dictionary.get(terms[i]).stream().mapToInt(Integer::intValue).toArray();
+      }
+      return new Index(version, docs.toArray(Hit[]::new), firstWords, terms, postings);
+    }
+
+    List<Hit> search(String query, int limit) {
+      String[] tokens = words(query);
+      if (tokens.length == 0 || limit <= 0) return List.of();
+
+      int[] score   = new int[docs.length];
+      int[] matched = new int[docs.length];
+      int[] seenBy  = new int[docs.length];
+      for (int t = 0; t < tokens.length; t++) {
+        String token = tokens[t];
+        int tokenNo = t + 1;
+        boolean first = t == 0;
+
+        // exact match first (it sorts before its extensions), then the other prefix matches
+        int from = lowerBound(token);
+        int to = from;
+        while (to < terms.length && terms[to].startsWith(token)) {
+          add(to, terms[to].length() == token.length() ? EXACT : PREFIX, first, tokenNo, score, matched, seenBy);
+          to++;
+        }
+
+        int maxEdits = token.length() >= FUZZY_TWO ? 2 : token.length() >= FUZZY_FROM ? 1 : 0;
+        if (maxEdits == 0) continue;
+        int[] distance = new int[terms.length];
+        for (int term = 0; term < terms.length; term++) {
+          distance[term] = term >= from && term < to ? 0 : prefixDistance(token, terms[term], maxEdits);
+        }
+        for (int edits = 1; edits <= maxEdits; edits++) {
+          for (int term = 0; term < terms.length; term++) {
+            if (distance[term] == edits) add(term, FUZZY - 10 * (edits - 1), first, tokenNo, score, matched, seenBy);
+          }
+        }
+      }
+
+      Comparator<Integer> rank = Comparator.<Integer>comparingInt(doc -> score[doc])
+          .thenComparing(Comparator.<Integer>comparingInt(doc -> docs[doc].name().length()).reversed())
+          .thenComparing(Comparator.<Integer>comparingInt(doc -> docs[doc].kind().ordinal()).reversed())
+          .thenComparing(Comparator.<Integer, String>comparing(doc -> docs[doc].name()).reversed());
+      PriorityQueue<Integer> best = new PriorityQueue<>(limit + 1, rank);
+      for (int doc = 0; doc < docs.length; doc++) {
+        if (matched[doc] != tokens.length) continue;
+        best.add(doc);
+        if (best.size() > limit) best.poll();
+      }
+      List<Hit> hits = new ArrayList<>(best.size());
+      while (!best.isEmpty()) {
+        int doc = best.poll();
+        Hit hit = docs[doc];
+        hits.add(new Hit(hit.kind(), hit.name(), hit.imageUrl(), hit.entry(), score[doc]));
+      }
+      return hits.reversed();
+    }
+
+    /** Credits {@code term}'s documents not yet matched by this token. */
+    private void add(int term, int points, boolean first, int tokenNo,
+        int[] score, int[] matched, int[] seenBy) {
+      for (int doc : postings[term]) {
+        if (seenBy[doc] == tokenNo) continue;
+        seenBy[doc] = tokenNo;
+        matched[doc]++;
+        score[doc] += points;
+        if (first && firstWords[doc].equals(terms[term])) score[doc] += FIRST_WORD;
+      }
+    }
+
+    private int lowerBound(String token) {
+      int index = Arrays.binarySearch(terms, token);
+      return index >= 0 ? index : -index - 1;
+    }
+  }
+
+  /**
+   * Smallest number of edits (insertions, deletions, substitutions, adjacent transpositions)
+   * turning {@code query} into a prefix of {@code term}, or {@code max + 1} when it exceeds
+   * {@code max}.
+   */
+  static int prefixDistance(String query, String term, int max) {
+    int m = query.length();
+    int n = Math.min(term.length(), m + max);
+    if (n < m - max) return max + 1;
+    int[] before = new int[n + 1];
+    int[] previous = new int[n + 1];
+    int[] row = new int[n + 1];
+    for (int j = 0; j <= n; j++) previous[j] = j;
+    for (int i = 1; i <= m; i++) {
+      row[0] = i;
+      int rowMin = row[0];
+      for (int j = 1; j <= n; j++) {
+        int cost = query.charAt(i - 1) == term.charAt(j - 1) ? 0 : 1;
+        int value = Math.min(Math.min(row[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+        if (i > 1 && j > 1 && query.charAt(i - 1) == term.charAt(j - 2)
+            && query.charAt(i - 2) == term.charAt(j - 1)) {
+          value = Math.min(value, before[j - 2] + 1);
+        }
+        row[j] = value;
+        rowMin = Math.min(rowMin, value);
+      }
+      if (rowMin > max) return max + 1;
+      int[] recycled = before;
+      before = previous;
+      previous = row;
+      row = recycled;
+    }
+    int best = max + 1;
+    for (int j = Math.max(0, m - max); j <= n; j++) best = Math.min(best, previous[j]);
+    return best;
+  }
+}
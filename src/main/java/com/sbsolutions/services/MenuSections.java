@@ -0,0 +1,28 @@
+package com.sbsolutions.services;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * The parts of a menu that are being fetched, each completing on its own as its order-data
+ * call returns. Lets a view that has nothing to show yet fill in section by section instead
+ * of waiting for the slowest call.
+ *
+ * <p>Stages complete on a fetch thread; consumers hand the result to {@code UI.access}.
+ */
+public record MenuSections(
+    CompletionStage<List<MenuItem>> donuts,
+    CompletionStage<List<MenuItem>> donutHoles,
+    CompletionStage<List<MenuItem>> rolls,
+    CompletionStage<List<PriceRow>> prices) {
+
+  /** Sections of an already available snapshot, all complete. */
+  static MenuSections of(MenuSnapshot snapshot) {
+    return new MenuSections(
+        CompletableFuture.completedStage(snapshot.donuts()),
+        CompletableFuture.completedStage(snapshot.donutHoles()),
+        CompletableFuture.completedStage(snapshot.rolls()),
+        CompletableFuture.completedStage(snapshot.prices()));
+  }
+}
@@ -0,0 +1,67 @@
+package com.sbsolutions.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * One compiled version of the kiosk catalog, shared by every attached {@code KioskView}.
+ *
+ * <p>Built once per fetch by {@link MenuSnapshotService}: every product and price row is already
+ * in display form ({@link MenuItem}, {@link PriceRow}) and each list is sorted in display order,
+ * so views only bind values. All lists are unmodifiable.
+ *
+ * @param version    menu version number (per JVM); only advances when the content changes
+ * @param fetchedAt  when the fetch that produced this version completed
+ * @param donuts     cake, glazed, raised and mixed donuts
+ * @param donutHoles donut holes of every kind
+ * @param rolls      rolls (and mixed items)
+ * @param prices     price list rows
+ */
+public record MenuSnapshot(
+    long version,
+    Instant fetchedAt,
+    List<MenuItem> donuts,
+    List<MenuItem> donutHoles,
+    List<MenuItem> rolls,
+    List<PriceRow> prices) {
+
+  public MenuSnapshot {
+    donuts     = List.copyOf(donuts);
+    donutHoles = List.copyOf(donutHoles);
+    rolls      = List.copyOf(rolls);
+    prices     = List.copyOf(prices);
+  }
+
+  /** Returns {@code true} when this snapshot was fetched more than {@code maxAge} before {@code now}. */
+  public boolean isOlderThan(Duration maxAge, Instant now) {
+    return fetchedAt.plus(maxAge).isBefore(now);
+  }
+
+  /** This snapshot, confirmed unchanged at {@code fetchedAt}; the version stays the same. */
+  public MenuSnapshot withFetchedAt(Instant fetchedAt) {
+    return new MenuSnapshot(version, fetchedAt, donuts, donutHoles, rolls, prices);
+  }
+
+  /** Returns {@code true} when none of the product lists contain anything. */
+  public boolean hasNoProducts() {
+    return donuts.isEmpty() && donutHoles.isEmpty() && rolls.isEmpty();
+  }
+
+  /** Returns {@code true} when both snapshots would render identically. */
+  public boolean sameContentAs(MenuSnapshot other) {
+    return other != null
+        && donuts.equals(other.donuts) && donutHoles.equals(other.donutHoles)
+        && rolls.equals(other.rolls) && prices.equals(other.prices);
+  }
+
+  /** Items shown in the specials list on {@code day}: donuts, then rolls, then donut holes. */
+  public List<MenuItem> specialsOn(LocalDate day) {
+    return Stream.of(donuts, rolls, donutHoles)
+        .flatMap(List::stream)
+        .filter(item -> item.isFeaturedOn(day))
+        .toList();
+  }
+}
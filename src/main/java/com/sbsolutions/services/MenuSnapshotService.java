@@ -0,0 +1,392 @@
+package com.sbsolutions.services;
+
+import com.sbsolutions.api.DonutsClient;
+import com.sbsolutions.api.PricingSheetClient;
+import com.sbsolutions.api.RollClient;
+import com.sbsolutions.order.models.Donut;
+import com.sbsolutions.order.models.ItemType;
+import com.sbsolutions.order.models.PricingSheet;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Application-wide owner of the kiosk catalog.
+ *
+ * <p>Every {@code KioskView} reads the same {@link MenuSnapshot} from here instead of calling
+ * the order-data clients itself. A snapshot is reused until it is older than
+ * {@code menu.snapshot.max-age}; concurrent requests for a new one share a single in-flight
+ * fetch, so upstream traffic does not grow with the number of attached screens.
+ *
+ * <p>A fetch runs the four order-data calls concurrently on virtual threads, each bounded by
+ * {@code menu.fetch.call-timeout}. A call that fails or times out keeps the list from the
+ * previous snapshot (or an empty list on the very first fetch), so one bad upstream never
+ * blanks the other sections. Each result is compiled into its display form
+ * ({@link MenuItem}, {@link PriceRow}) on the same virtual thread, once per fetch.
+ *
+ * <p>The service polls order-data every {@code menu.poll-interval}, by default as often as the
+ * {@code menu.snapshot.max-age} refetch did before, since without a {@link MenuVersionProbe}
+ * every poll runs the four catalog calls. The version number only
+ * advances when the fetched content differs from the current snapshot, and each new version
+ * is published once through {@link MenuBroadcaster} to every attached kiosk. The current
+ * snapshot is also re-published on the first poll of a new day, since the specials and the
+ * header date depend on it.
+ *
+ * <p>Every new version that has products is also written to {@link MenuSnapshotStore}. On
+ * startup the stored snapshot is served right away while a background refresh revalidates it
+ * against order-data. This holds even when order-data is down.
+ *
+ * <p>Each call goes through its {@link UpstreamGuard}: a bulkhead bounds concurrent calls and a
+ * circuit breaker stops calling an upstream that keeps failing, so the previous list is served
+ * at once instead of after a full timeout. The scheduled poll doubles as the recovery probe.
+ */
+@Service
+public class MenuSnapshotService {
+
+  private static final Logger log = LoggerFactory.getLogger(MenuSnapshotService.class);
+
+  static final ItemType[] DONUT_TYPES =
+      {ItemType.CAKE_DONUT, ItemType.GLAZED_DONUT, ItemType.RAISED_DONUT, ItemType.MIX};
+  static final ItemType[] DONUT_HOLE_TYPES =
+      {ItemType.CAKE_DONUT_HOLES, ItemType.GLAZED_DONUT_HOLES, ItemType.RAISED_DONUT_HOLES};
+  static final ItemType[] ROLL_TYPES =
+      {ItemType.ROLL, ItemType.MIX};
+
+  private final DonutsClient       donutsClient;
+  private final RollClient         rollClient;
+  private final PricingSheetClient pricingSheetClient;
+  private final MenuBroadcaster    broadcaster;
+  private final MenuSnapshotStore  store;
+  private final MenuMetrics        metrics;
+  private final UpstreamGuards     guards;
+  private final MenuVersionProbe   versionProbe;
+  private final Duration           maxAge;
+  private final Duration           callTimeout;
+  private final ExecutorService    fetchExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+  private final AtomicLong versions = new AtomicLong();
+  private final AtomicReference<MenuSnapshot> current = new AtomicReference<>();
+  private final AtomicReference<Fetch> inFlight = new AtomicReference<>();
+  /** Last successful raw response and its compiled form, per call. */
+  private final Map<String, Compiled<?, ?>> compiled = new ConcurrentHashMap<>();
+  private final ZoneId             storeZone;
+  private volatile LocalDate       menuDay;
+
+  public MenuSnapshotService(DonutsClient donutsClient, RollClient rollClient,
+      PricingSheetClient pricingSheetClient, MenuBroadcaster broadcaster, MenuSnapshotStore store,
+      MenuMetrics metrics, UpstreamGuards guards, MenuVersionProbe versionProbe,
+      @Value("${menu.snapshot.max-age:PT15M}") Duration maxAge,
+      @Value("${menu.fetch.call-timeout:PT10S}") Duration callTimeout,
+      @Value("${kiosk.time-zone:America/Chicago}") ZoneId storeZone) {
+    this.donutsClient       = donutsClient;
+    this.rollClient         = rollClient;
+    this.pricingSheetClient = pricingSheetClient;
+    this.broadcaster        = broadcaster;
+    this.store              = store;
+    this.metrics            = metrics;
+    this.guards             = guards;
+    this.versionProbe       = versionProbe;
+    this.maxAge             = maxAge;
+    this.callTimeout        = callTimeout;
+    this.storeZone          = storeZone;
+    this.menuDay            = LocalDate.now(storeZone);
+  }
+
+  /** Restores the last known good snapshot from disk and revalidates it in the background. */
+  @PostConstruct
+  void restore() {
+    store.load().ifPresent(snapshot -> {
+      versions.set(snapshot.version());
+      current.compareAndSet(null, snapshot);
+      CompletableFuture.runAsync(this::refresh, fetchExecutor);
+    });
+  }
+
+  @PreDestroy
+  void shutdown() {
+    fetchExecutor.shutdownNow();
+  }
+
+  /**
+   * Returns the current snapshot. Only the very first call waits for a fetch; once there is a
+   * snapshot it is returned at once, and if it is older than {@code menu.snapshot.max-age} a
+   * background refresh is started (stale-while-revalidate).
+   */
+  public MenuSnapshot getSnapshot() {
+    MenuSnapshot snapshot = current.get();
+    if (snapshot == null) {
+      return refresh().join();
+    }
+    if (snapshot.isOlderThan(maxAge, Instant.now()) && inFlight.get() == null) {
+      CompletableFuture.runAsync(this::refresh, fetchExecutor);
+    }
+    return snapshot;
+  }
+
+  /** Returns the current snapshot without fetching, or empty before the first fetch. */
+  public Optional<MenuSnapshot> currentSnapshot() {
+    return Optional.ofNullable(current.get());
+  }
+
+  /**
+   * Returns the menu section by section without blocking: complete at once when there is a
+   * snapshot, otherwise the sections of the running fetch (started in the background if
+   * needed), each completing as its call returns.
+   */
+  public MenuSections sections() {
+    MenuSnapshot snapshot = current.get();
+    if (snapshot != null) {
+      return MenuSections.of(snapshot);
+    }
+    Fetch mine = new Fetch();
+    Fetch running = inFlight.compareAndExchange(null, mine);
+    if (running != null) {
+      return running.sections();
+    }
+    fetchExecutor.execute(() -> run(mine));
+    return mine.sections();
+  }
+
+  /** Periodic poll; publishes a new version to all kiosks only when the menu changed. */
+  @Scheduled(initialDelayString = "${menu.poll-interval:PT15M}",
+      fixedDelayString = "${menu.poll-interval:PT15M}")
+  void poll() {
+    MenuSnapshot snapshot = refresh().join();
+    LocalDate today = LocalDate.now(storeZone);
+    if (!today.equals(menuDay)) {
+      menuDay = today;
+      broadcaster.broadcast(snapshot);
+    }
+  }
+
+  /**
+   * Starts a fetch unless one is already running, and returns the future of the in-flight
+   * fetch. The first caller performs the fetch on its own thread; later callers only wait.
+   */
+  public CompletableFuture<MenuSnapshot> refresh() {
+    Fetch mine = new Fetch();
+    Fetch running = inFlight.compareAndExchange(null, mine);
+    if (running != null) {
+      return running.snapshot();
+    }
+    run(mine);
+    return mine.snapshot();
+  }
+
+  /** Performs {@code fetch}, which the caller has installed as {@link #inFlight}. */
+  private void run(Fetch fetch) {
+    try {
+      MenuSnapshot previous = current.get();
+      MenuSnapshot snapshot = load(previous, fetch);
+      current.set(snapshot);
+      fetch.complete(snapshot);
+      if (previous == null || previous.version() != snapshot.version()) {
+        broadcaster.broadcast(snapshot);
+        if (!snapshot.hasNoProducts()) store.save(snapshot);
+      } else {
+        broadcaster.heartbeat(snapshot);
+      }
+    } catch (RuntimeException e) {
+      metrics.recordFailure(e);
+      fetch.fail(e);
+    } finally {
+      inFlight.set(null);
+    }
+  }
+
+  /**
+   * Produces the next snapshot: {@code previous} when the version probe reports no change,
+   * otherwise the result of the four catalog calls.
+   */
+  private MenuSnapshot load(MenuSnapshot previous, Fetch pending) {
+    MenuVersionProbe.Result probe = versionProbe.check();
+    if (versionProbe.isEnabled()) {
+      metrics.recordProbe(probe.unchanged() && previous != null);
+    }
+    if (probe.unchanged() && previous != null) {
+      return previous.withFetchedAt(Instant.now());
+    }
+    return fetch(previous, pending, () -> versionProbe.applied(probe.token()));
+  }
+
+  /**
+   * Runs the four catalog calls. {@code whenFresh} runs only if every call succeeded, i.e. the
+   * result reflects order-data as of now rather than partly the previous snapshot.
+   */
+  private MenuSnapshot fetch(MenuSnapshot previous, Fetch pending, Runnable whenFresh) {
+    log.debug("Fetching kiosk catalog from order-data");
+    long start = System.nanoTime();
+
+    CompletableFuture<Timed<MenuItem>> donuts = call("donuts",
+        () -> donutsClient.findByItemTypes(DONUT_TYPES), this::compileItems, previous, MenuSnapshot::donuts);
+    CompletableFuture<Timed<MenuItem>> donutHoles = call("donut holes",
+        () -> donutsClient.findByItemTypes(DONUT_HOLE_TYPES), this::compileItems, previous, MenuSnapshot::donutHoles);
+    CompletableFuture<Timed<MenuItem>> rolls = call("rolls",
+        () -> rollClient.findByItemTypes(ROLL_TYPES), this::compileItems, previous, MenuSnapshot::rolls);
+    CompletableFuture<Timed<PriceRow>> prices = call("pricing sheets",
+        pricingSheetClient::findAll, MenuSnapshotService::compilePrices, previous, MenuSnapshot::prices);
+    donuts.thenAccept(timed -> pending.donuts().complete(timed.items()));
+    donutHoles.thenAccept(timed -> pending.donutHoles().complete(timed.items()));
+    rolls.thenAccept(timed -> pending.rolls().complete(timed.items()));
+    prices.thenAccept(timed -> pending.prices().complete(timed.items()));
+
+    CompletableFuture.allOf(donuts, donutHoles, rolls, prices).join();
+
+    long elapsed = System.nanoTime() - start;
+    metrics.recordRefresh(elapsed);
+    log.debug("Fetched kiosk catalog in {} ms (donuts {} ms, donut holes {} ms, rolls {} ms, pricing sheets {} ms)",
+        TimeUnit.NANOSECONDS.toMillis(elapsed),
+        donuts.join().millis(), donutHoles.join().millis(),
+        rolls.join().millis(), prices.join().millis());
+
+    if (Stream.of(donuts, donutHoles, rolls, prices).allMatch(call -> call.join().fresh())) {
+      whenFresh.run();
+    }
+
+    MenuSnapshot fetched = new MenuSnapshot(0, Instant.now(),
+        donuts.join().items(), donutHoles.join().items(),
+        rolls.join().items(), prices.join().items());
+    return versioned(fetched, previous);
+  }
+
+  /** {@code fetched} under the version of {@code previous} if the content is the same, else a new one. */
+  private MenuSnapshot versioned(MenuSnapshot fetched, MenuSnapshot previous) {
+    long version = fetched.sameContentAs(previous) ? previous.version() : versions.incrementAndGet();
+    return new MenuSnapshot(version, fetched.fetchedAt(),
+        fetched.donuts(), fetched.donutHoles(), fetched.rolls(), fetched.prices());
+  }
+
+  /** Compiles products into display form, sorted by their {@code order}. */
+  private List<MenuItem> compileItems(List<? extends Donut> items) {
+    if (items == null) return List.of();
+    return items.stream()
+        .map(item -> MenuItem.of(item, storeZone))
+        .sorted(Comparator.comparingInt(MenuItem::sortKey))
+        .toList();
+  }
+
+  /** Compiles pricing sheets into display form, sorted by their {@code order}. */
+  private static List<PriceRow> compilePrices(List<PricingSheet> sheets) {
+    if (sheets == null) return List.of();
+    return sheets.stream()
+        .map(PriceRow::of)
+        .sorted(Comparator.comparingInt(PriceRow::sortKey))
+        .toList();
+  }
+
+  /**
+   * Runs one client call on a virtual thread through its {@link UpstreamGuard}, bounded by
+   * {@link #callTimeout}, and compiles the response there (see {@link #compileOnce}). On
+   * failure or rejection the matching list of {@code previous} is used instead (empty when
+   * there is no previous snapshot). The returned future never completes exceptionally.
+   */
+  private <R, T> CompletableFuture<Timed<T>> call(String name, Supplier<List<R>> call,
+      Function<List<R>, List<T>> compile, MenuSnapshot previous,
+      Function<MenuSnapshot, List<T>> fallback) {
+    long start = System.nanoTime();
+    return guards.forCall(name).call(() -> compileOnce(name, call.get(), compile), fetchExecutor, callTimeout)
+        .handle((items, error) -> {
+          long nanos = System.nanoTime() - start;
+          long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+          Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+          metrics.recordCall(name, nanos, cause);
+          if (error == null) {
+            return new Timed<T>(items, millis, true);
+          }
+          String reason = cause instanceof TimeoutException
+              ? "timed out after " + callTimeout.toMillis() + " ms" : cause.getMessage();
+          List<T> stale = previous != null ? fallback.apply(previous) : List.of();
+          log.warn("Could not load {}: {} (keeping {} previous items)", name, reason, stale.size());
+          return new Timed<T>(stale, millis, false);
+        });
+  }
+
+  /**
+   * Returns the compiled form of {@code raw}, reusing the previous result of the same call when
+   * the response is equal to the last one. Elements identical to the previous ones are never
+   * trusted, since a client may hand back (and mutate) the same objects.
+   */
+  @SuppressWarnings("unchecked")
+  private <R, T> List<T> compileOnce(String name, List<R> raw, Function<List<R>, List<T>> compile) {
+    Compiled<R, T> last = (Compiled<R, T>) compiled.get(name);
+    if (raw != null && last != null && sameResponse(last.raw(), raw)) {
+      metrics.recordCompile(name, true);
+      return last.items();
+    }
+    List<T> items = compile.apply(raw);
+    if (raw != null) compiled.put(name, new Compiled<>(new ArrayList<>(raw), items));
+    metrics.recordCompile(name, false);
+    return items;
+  }
+
+  private static boolean sameResponse(List<?> previous, List<?> raw) {
+    if (previous.size() != raw.size()) return false;
+    for (int i = 0; i < raw.size(); i++) {
+      Object before = previous.get(i);
+      Object now = raw.get(i);
+      if (before == null || before == now || !before.equals(now)) return false;
+    }
+    return true;
+  }
+
+  /** Result of one client call, how long it took, and whether it came from order-data. */
+  private record Timed<T>(List<T> items, long millis, boolean fresh) {}
+
+  /** Last raw response of one call and the items compiled from it. */
+  private record Compiled<R, T>(List<R> raw, List<T> items) {}
+
+  /** One fetch: the snapshot it produces and its sections as they arrive. */
+  private record Fetch(
+      CompletableFuture<MenuSnapshot> snapshot,
+      CompletableFuture<List<MenuItem>> donuts,
+      CompletableFuture<List<MenuItem>> donutHoles,
+      CompletableFuture<List<MenuItem>> rolls,
+      CompletableFuture<List<PriceRow>> prices) {
+
+    Fetch() {
+      this(new CompletableFuture<>(), new CompletableFuture<>(), new CompletableFuture<>(),
+          new CompletableFuture<>(), new CompletableFuture<>());
+    }
+
+    MenuSections sections() {
+      return new MenuSections(donuts, donutHoles, rolls, prices);
+    }
+
+    void complete(MenuSnapshot menu) {
+      snapshot.complete(menu);
+      donuts.complete(menu.donuts());
+      donutHoles.complete(menu.donutHoles());
+      rolls.complete(menu.rolls());
+      prices.complete(menu.prices());
+    }
+
+    void fail(Throwable error) {
+      Stream.of(snapshot, donuts, donutHoles, rolls, prices).forEach(f -> f.completeExceptionally(error));
+    }
+  }
+}
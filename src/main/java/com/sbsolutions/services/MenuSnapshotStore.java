@@ -0,0 +1,224 @@
+package com.sbsolutions.services;
+
+import com.sbsolutions.images.ImageVariant;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.CRC32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the last known good {@link MenuSnapshot} on local disk, so a node that just woke up
+ * can render the menu before order-data has answered (or while it is down).
+ *
+ * <p>File layout, big-endian:
+ * <pre>
+ *   int    magic 'OMSN'
+ *   short  format version
+ *   long   menu version
+ *   long   fetchedAt (epoch millis)
+ *   4 ×    item list (donuts, donut holes, rolls) / price list: int count, then rows
+ *   long   CRC32 of everything before it
+ * </pre>
+ * Strings are an {@code int} UTF-8 byte length ({@code -1} for {@code null}) followed by the
+ * bytes. Values derived from other fields (proxied image URLs) are not stored but rebuilt on
+ * load. A file with another magic, format version or checksum is ignored.
+ *
+ * <p>{@link #save} writes a temp file next to the target, forces it to disk and moves it into
+ * place atomically, so a crash never leaves a half-written snapshot behind.
+ * {@link #load} maps the file read-only instead of copying it through a stream.
+ */
+@Component
+public class MenuSnapshotStore {
+
+  private static final Logger log = LoggerFactory.getLogger(MenuSnapshotStore.class);
+
+  static final int   MAGIC          = 0x4F4D534E; // "OMSN"
+  static final short FORMAT_VERSION = 3;   // 3: item keys are upstream ids
+
+  private static final long NO_DATE = Long.MIN_VALUE;
+
+  private final Path file;
+
+  public MenuSnapshotStore(
+      @Value("${menu.snapshot.file:${java.io.tmpdir}/order-menu/menu-snapshot.bin}") Path file) {
+    this.file = file;
+  }
+
+  /** Returns the stored snapshot, or empty when there is none or it cannot be read. */
+  public Optional<MenuSnapshot> load() {
+    long start = System.nanoTime();
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      MenuSnapshot snapshot = decode(buffer);
+      log.info("Loaded menu version {} (fetched {}) from {} in {} µs", snapshot.version(),
+          snapshot.fetchedAt(), file, (System.nanoTime() - start) / 1_000);
+      return Optional.of(snapshot);
+    } catch (NoSuchFileException e) {
+      return Optional.empty();
+    } catch (IOException | RuntimeException e) {
+      log.warn("Ignoring unreadable menu snapshot {}: {}", file, e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  /** Replaces the stored snapshot with {@code snapshot}. Failures are logged, not thrown. */
+  public void save(MenuSnapshot snapshot) {
+    try {
+      byte[] data = encode(snapshot);
+      Path dir = file.toAbsolutePath().getParent();
+      Files.createDirectories(dir);
+      Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+      try {
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+          ByteBuffer buffer = ByteBuffer.wrap(data);
+          while (buffer.hasRemaining()) channel.write(buffer);
+          channel.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } finally {
+        Files.deleteIfExists(tmp);
+      }
+      log.debug("Stored menu version {} in {} ({} bytes)", snapshot.version(), file, data.length);
+    } catch (IOException e) {
+      log.warn("Could not store menu version {} in {}: {}", snapshot.version(), file, e.getMessage());
+    }
+  }
+
+  // ── Encoding ───────────────────────────────────────────────
+
+  static byte[] encode(MenuSnapshot snapshot) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 * 1024);
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.writeInt(MAGIC);
+    out.writeShort(FORMAT_VERSION);
+    out.writeLong(snapshot.version());
+    out.writeLong(snapshot.fetchedAt().toEpochMilli());
+    writeItems(out, snapshot.donuts());
+    writeItems(out, snapshot.donutHoles());
+    writeItems(out, snapshot.rolls());
+    out.writeInt(snapshot.prices().size());
+    for (PriceRow row : snapshot.prices()) {
+      writeString(out, row.description());
+      writeString(out, row.unit());
+      writeString(out, row.priceText());
+      out.writeInt(row.sortKey());
+    }
+    out.flush();
+    CRC32 crc = new CRC32();
+    crc.update(bytes.toByteArray());
+    out.writeLong(crc.getValue());
+    return bytes.toByteArray();
+  }
+
+  private static void writeItems(DataOutputStream out, List<MenuItem> items) throws IOException {
+    out.writeInt(items.size());
+    for (MenuItem item : items) {
+      writeString(out, item.key());
+      writeString(out, item.description());
+      writeString(out, item.imageUrl());
+      writeString(out, item.availableDays());
+      out.writeInt(item.availability());
+      writeString(out, item.daysText());
+      out.writeInt(item.sortKey());
+      writeString(out, item.priceText());
+      writeString(out, item.specialPriceText());
+      out.writeLong(item.specialPriceDate() == null ? NO_DATE : item.specialPriceDate().toEpochDay());
+    }
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    if (value == null) {
+      out.writeInt(-1);
+      return;
+    }
+    byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(utf8.length);
+    out.write(utf8);
+  }
+
+  // ── Decoding ───────────────────────────────────────────────
+
+  static MenuSnapshot decode(ByteBuffer buffer) throws IOException {
+    if (buffer.remaining() < Long.BYTES) throw new IOException("truncated file");
+    int end = buffer.limit() - Long.BYTES;
+    CRC32 crc = new CRC32();
+    crc.update(buffer.duplicate().limit(end));
+    if (crc.getValue() != buffer.getLong(end)) throw new IOException("checksum mismatch");
+
+    ByteBuffer in = buffer.duplicate().limit(end);
+    try {
+      if (in.getInt() != MAGIC) throw new IOException("not a menu snapshot");
+      short format = in.getShort();
+      if (format != FORMAT_VERSION) throw new IOException("unsupported format version " + format);
+      long version = in.getLong();
+      Instant fetchedAt = Instant.ofEpochMilli(in.getLong());
+      List<MenuItem> donuts     = readItems(in);
+      List<MenuItem> donutHoles = readItems(in);
+      List<MenuItem> rolls      = readItems(in);
+      int priceCount = count(in);
+      List<PriceRow> prices = new ArrayList<>(priceCount);
+      for (int i = 0; i < priceCount; i++) {
+        prices.add(new PriceRow(readString(in), readString(in), readString(in), in.getInt()));
+      }
+      return new MenuSnapshot(version, fetchedAt, donuts, donutHoles, rolls, prices);
+    } catch (BufferUnderflowException e) {
+      throw new IOException("truncated file", e);
+    }
+  }
+
+  private static List<MenuItem> readItems(ByteBuffer in) throws IOException {
+    int count = count(in);
+    List<MenuItem> items = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      String key           = readString(in);
+      String description   = readString(in);
+      String imageUrl      = readString(in);
+      String availableDays = readString(in);
+      int availability     = in.getInt();
+      String daysText      = readString(in);
+      int sortKey          = in.getInt();
+      String priceText     = readString(in);
+      String specialPrice  = readString(in);
+      long specialDay      = in.getLong();
+      items.add(new MenuItem(key, description, imageUrl,
+          ImageVariant.CARD.proxyUrl(imageUrl), ImageVariant.SPECIAL.proxyUrl(imageUrl),
+          availableDays, availability, daysText, sortKey, priceText, specialPrice,
+          specialDay == NO_DATE ? null : LocalDate.ofEpochDay(specialDay)));
+    }
+    return items;
+  }
+
+  private static String readString(ByteBuffer in) throws IOException {
+    int length = in.getInt();
+    if (length == -1) return null;
+    if (length < 0 || length > in.remaining()) throw new IOException("corrupt string length " + length);
+    String value = StandardCharsets.UTF_8.decode(in.slice(in.position(), length)).toString();
+    in.position(in.position() + length);
+    return value;
+  }
+
+  private static int count(ByteBuffer in) throws IOException {
+    int count = in.getInt();
+    if (count < 0 || count > in.remaining()) throw new IOException("corrupt list length " + count);
+    return count;
+  }
+}
@@ -0,0 +1,98 @@
+package com.sbsolutions.services;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cheap check whether the order-data catalog changed since the last complete fetch.
+ *
+ * <p>When {@code menu.version-probe.url} is set, {@link #check()} sends one conditional GET to
+ * it with the last applied {@code ETag} in {@code If-None-Match}. A {@code 304} (or, for
+ * endpoints without validators, the same response body as last time) means the catalog is
+ * unchanged and the four catalog calls can be skipped. Any other answer, an error, or an unset
+ * URL means "fetch", so the probe can only save work, never hide a change.
+ *
+ * <p>Order-data has no such endpoint today, so the probe is off unless an operator points it
+ * at one (or at a proxy that serves validators for the catalog).
+ *
+ * <p>A token is only remembered through {@link #applied} once a fetch with every call
+ * successful has been built from it.
+ */
+@Component
+public class MenuVersionProbe {
+
+  private static final Logger log = LoggerFactory.getLogger(MenuVersionProbe.class);
+
+  private static final int    MAX_BODY_TOKEN = 256;
+  private static final String BODY_TOKEN     = "body:";
+
+  /** Outcome of one probe; {@code token} identifies the catalog version seen, if any. */
+  public record Result(boolean unchanged, String token) {
+    public static final Result FETCH = new Result(false, null);
+  }
+
+  private final URI        url;
+  private final Duration   timeout;
+  private final HttpClient http;
+  private volatile String  appliedToken;
+
+  public MenuVersionProbe(
+      @Value("${menu.version-probe.url:}") String url,
+      @Value("${menu.version-probe.timeout:PT2S}") Duration timeout) {
+    this.url     = url.isBlank() ? null : URI.create(url);
+    this.timeout = timeout;
+    this.http    = this.url == null ? null : HttpClient.newBuilder().connectTimeout(timeout).build();
+  }
+
+  public boolean isEnabled() {
+    return url != null;
+  }
+
+  /** Probes the catalog version; never throws. */
+  public Result check() {
+    if (url == null) return Result.FETCH;
+    String applied = appliedToken;
+    HttpRequest.Builder request = HttpRequest.newBuilder(url).timeout(timeout).GET();
+    if (applied != null && !applied.startsWith(BODY_TOKEN)) {
+      request.header("If-None-Match", applied);
+    }
+    try {
+      HttpResponse<String> response = http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+      if (response.statusCode() == 304) {
+        return new Result(applied != null, applied);
+      }
+      if (response.statusCode() != 200) {
+        log.debug("Version probe returned {}", response.statusCode());
+        return Result.FETCH;
+      }
+      String token = response.headers().firstValue("ETag").orElseGet(() -> bodyToken(response.body()));
+      return new Result(token != null && token.equals(applied), token);
+    } catch (IOException e) {
+      log.debug("Version probe failed: {}", e.getMessage());
+      return Result.FETCH;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return Result.FETCH;
+    }
+  }
+
+  /** Records that the catalog identified by {@code token} has been fully fetched. */
+  public void applied(String token) {
+    if (token != null) appliedToken = token;
+  }
+
+  /** Small version bodies ({@code 42}, {@code {"version":42}}) double as the token. */
+  private static String bodyToken(String body) {
+    if (body == null) return null;
+    String trimmed = body.strip();
+    return trimmed.isEmpty() || trimmed.length() > MAX_BODY_TOKEN ? null : BODY_TOKEN + trimmed;
+  }
+}
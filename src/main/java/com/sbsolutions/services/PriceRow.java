@@ -0,0 +1,28 @@
+package com.sbsolutions.services;
+
+import com.sbsolutions.order.models.PricingSheet;
+import java.util.Objects;
+
+/**
+ * Display-ready form of one pricing-sheet row.
+ *
+ * @param description row label, never {@code null}
+ * @param unit        unit label, never {@code null}
+ * @param priceText   formatted price ({@code "$14.99"}), or empty when the sheet has no price
+ * @param sortKey     display order; rows without an order sort last
+ */
+public record PriceRow(String description, String unit, String priceText, int sortKey) {
+
+  public static PriceRow of(PricingSheet sheet) {
+    return new PriceRow(
+        Objects.toString(sheet.getDescription(), ""),
+        Objects.toString(sheet.getUnit(), ""),
+        sheet.getPrice() != null ? String.format("$%.2f", sheet.getPrice()) : "",
+        sheet.getOrder() == null ? Integer.MAX_VALUE : sheet.getOrder());
+  }
+
+  /** Identity used to key rows across versions. */
+  public String key() {
+    return description + "|" + unit;
+  }
+}
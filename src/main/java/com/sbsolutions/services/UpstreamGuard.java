@@ -0,0 +1,120 @@
+package com.sbsolutions.services;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Circuit breaker and bulkhead for one order-data call.
+ *
+ * <p><b>Bulkhead:</b> at most {@code maxConcurrent} calls run against the upstream at once. The
+ * permit is held until the client call actually returns, not merely until it times out, so
+ * calls stuck on a hung upstream count against the limit. Calls over the limit are rejected at
+ * once instead of queueing.
+ *
+ * <p><b>Circuit breaker:</b> after {@code failureThreshold} consecutive failures (errors or
+ * timeouts) the circuit opens and calls are rejected without touching the upstream. Once
+ * {@code openDuration} has passed, one probe call is let through (half-open): success closes
+ * the circuit, failure opens it for another {@code openDuration}.
+ *
+ * <p>Rejections complete the returned future with {@link UpstreamRejectedException}, which
+ * callers treat like any other failure and answer with stale data.
+ */
+class UpstreamGuard {
+
+  private static final Logger log = LoggerFactory.getLogger(UpstreamGuard.class);
+
+  enum State { CLOSED, OPEN, HALF_OPEN }
+
+  private final String    name;
+  private final int       failureThreshold;
+  private final long      openNanos;
+  private final Semaphore bulkhead;
+
+  private State   state = State.CLOSED;
+  private int     consecutiveFailures;
+  private long    openUntil;
+  private boolean probeInFlight;
+
+  UpstreamGuard(String name, int failureThreshold, Duration openDuration, int maxConcurrent) {
+    this.name             = name;
+    this.failureThreshold = failureThreshold;
+    this.openNanos        = openDuration.toNanos();
+    this.bulkhead         = new Semaphore(maxConcurrent);
+  }
+
+  /**
+   * Runs {@code call} on {@code executor}, bounded by {@code timeout}, unless the bulkhead is
+   * full or the circuit is open.
+   */
+  <T> CompletableFuture<T> call(Supplier<T> call, Executor executor, Duration timeout) {
+    if (!bulkhead.tryAcquire()) {
+      return CompletableFuture.failedFuture(new UpstreamRejectedException(name, "bulkhead_full"));
+    }
+    if (!tryAcquirePermission()) {
+      bulkhead.release();
+      return CompletableFuture.failedFuture(new UpstreamRejectedException(name, "circuit_open"));
+    }
+    CompletableFuture<T> result;
+    try {
+      result = CompletableFuture.supplyAsync(() -> {
+        try {
+          return call.get();
+        } finally {
+          bulkhead.release();
+        }
+      }, executor);
+    } catch (RuntimeException e) {
+      bulkhead.release();
+      onFailure();
+      throw e;
+    }
+    return result
+        .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+        .whenComplete((value, error) -> {
+          if (error == null) onSuccess();
+          else onFailure();
+        });
+  }
+
+  synchronized State state() {
+    return state;
+  }
+
+  private synchronized boolean tryAcquirePermission() {
+    if (state == State.CLOSED) return true;
+    if (state == State.OPEN) {
+      if (System.nanoTime() - openUntil < 0) return false;
+      state = State.HALF_OPEN;
+      log.info("Probing {} after the circuit was open", name);
+    } else if (probeInFlight) {
+      return false;
+    }
+    probeInFlight = true;
+    return true;
+  }
+
+  private synchronized void onSuccess() {
+    if (state != State.CLOSED) log.info("Circuit for {} closed: upstream recovered", name);
+    state = State.CLOSED;
+    consecutiveFailures = 0;
+    probeInFlight = false;
+  }
+
+  private synchronized void onFailure() {
+    probeInFlight = false;
+    consecutiveFailures++;
+    if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+      if (state == State.CLOSED) {
+        log.warn("Circuit for {} opened after {} consecutive failures", name, consecutiveFailures);
+      }
+      state = State.OPEN;
+      openUntil = System.nanoTime() + openNanos;
+    }
+  }
+}
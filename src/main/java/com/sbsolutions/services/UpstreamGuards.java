@@ -0,0 +1,31 @@
+package com.sbsolutions.services;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/** One {@link UpstreamGuard} per order-data call, all sharing the configured policy. */
+@Component
+public class UpstreamGuards {
+
+  private final int      failureThreshold;
+  private final Duration openDuration;
+  private final int      maxConcurrent;
+  private final Map<String, UpstreamGuard> guards = new ConcurrentHashMap<>();
+
+  public UpstreamGuards(
+      @Value("${menu.upstream.failure-threshold:3}") int failureThreshold,
+      @Value("${menu.upstream.open-duration:PT30S}") Duration openDuration,
+      @Value("${menu.upstream.max-concurrent:2}") int maxConcurrent) {
+    this.failureThreshold = failureThreshold;
+    this.openDuration     = openDuration;
+    this.maxConcurrent    = maxConcurrent;
+  }
+
+  UpstreamGuard forCall(String name) {
+    return guards.computeIfAbsent(name,
+        n -> new UpstreamGuard(n, failureThreshold, openDuration, maxConcurrent));
+  }
+}
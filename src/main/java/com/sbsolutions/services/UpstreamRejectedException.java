@@ -0,0 +1,19 @@
+package com.sbsolutions.services;
+
+/**
+ * Thrown instead of calling order-data when {@link UpstreamGuard} refuses the call.
+ */
+public class UpstreamRejectedException extends RuntimeException {
+
+  private final String reason;
+
+  public UpstreamRejectedException(String call, String reason) {
+    super(call + " rejected: " + reason.replace('_', ' '), null, false, false);
+    this.reason = reason;
+  }
+
+  /** {@code circuit_open} or {@code bulkhead_full}; also used as the metrics cause. */
+  public String reason() {
+    return reason;
+  }
+}
@@ -3,19 +3,44 @@ package com.sbsolutions.util;
 import com.sbsolutions.order.models.Donut;
 import java.time.DayOfWeek;
 import java.util.EnumSet;
-import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Pure, stateless helper methods extracted from {@code KioskView}.
+ * Helper methods extracted from {@code KioskView}.
  *
  * <p>All methods are static so this class is trivially unit-testable without any
- * Spring or Vaadin context.
+ * Spring or Vaadin context. Their results depend only on their arguments; the one piece of
+ * state is a static cache of parsed day masks, described below.
+ *
+ * <p>Day availability is represented internally as a 7-bit mask (bit 0 = Monday … bit 6 =
+ * Sunday). {@link #availabilityMask} parses an {@code availableDays} string once with a
+ * hand-written scanner and caches the result by input string, so repeated lookups for the
+ * same catalog strings allocate nothing. The cache is a process-wide {@code ConcurrentHashMap}
+ * bounded at 1,024 entries ({@code MASK_CACHE_LIMIT}): past that, new strings are parsed but
+ * no longer cached, so it cannot grow with unexpected input.
  */
 public final class KioskLogic {
 
-  private static final List<String> DAY_ORDER =
-      List.of("Mon", "Tue", "Wed", "Thu", "Fri", "Sat", "Sun");
+  /** Accepted spellings per day, indexed by {@code DayOfWeek.getValue() - 1}. */
+  private static final String[][] DAY_ALIASES = {
+      {"mon", "monday"},
+      {"tue", "tues", "tuesday"},
+      {"wed", "wednesday"},
+      {"thu", "thur", "thurs", "thursday"},
+      {"fri", "friday"},
+      {"sat", "saturday"},
+      {"sun", "sunday"},
+  };
+
+  /** Mask with every day set. */
+  public static final int ALL_DAYS = 0b111_1111;
+
+  /** Upper bound on cached masks; catalogs only use a handful of distinct strings. */
+  private static final int MASK_CACHE_LIMIT = 1024;
+
+  private static final Map<String, Integer> MASK_CACHE = new ConcurrentHashMap<>();
 
   private KioskLogic() {}
 
@@ -52,17 +77,13 @@ public final class KioskLogic {
   // ── Day-of-week helpers ──────────────────────────────────────────────────
 
   /**
-   * Returns the zero-based display sort index (0 = Mon … 6 = Sun) of the first
-   * recognizable day abbreviation found in {@code availableDays}, or {@code -1} when
-   * {@code availableDays} is blank/null, or {@code 7} when no recognizable abbreviation
-   * is found.
+   * Returns the zero-based display sort index (0 = Mon … 6 = Sun) of the earliest day in
+   * {@code availableDays}, or {@code -1} when {@code availableDays} is blank/null, or {@code 7}
+   * when no day is recognized. Reads the cached {@link #availabilityMask}.
    */
   public static int dayOrder(String availableDays) {
     if (!notBlank(availableDays)) return -1;
-    for (int i = 0; i < DAY_ORDER.size(); i++) {
-      if (availableDays.contains(DAY_ORDER.get(i))) return i;
-    }
-    return DAY_ORDER.size();
+    return firstDayOrder(availabilityMask(availableDays));
   }
 
   /**
@@ -75,34 +96,13 @@ public final class KioskLogic {
    *   <li>Range: {@code Mon-Fri}, {@code Sat-Mon} (wraps around Sunday→Monday)</li>
    * </ul>
    *
+   * <p>This is a thin adapter over {@link #availabilityMask}; prefer the mask API on hot paths.
+   *
    * @param input comma-separated day string; may be {@code null} or blank
    * @return non-null, possibly empty {@link Set} of matching {@link DayOfWeek} values
    */
   public static Set<DayOfWeek> parseAvailableDays(String input) {
-    Set<DayOfWeek> result = EnumSet.noneOf(DayOfWeek.class);
-    if (input == null || input.isBlank()) return result;
-
-    for (String part : input.split(",")) {
-      part = part.trim();
-      if (part.contains("-")) {
-        String[] range = part.split("-", 2);
-        DayOfWeek start = parseDay(range[0].trim());
-        DayOfWeek end   = parseDay(range[1].trim());
-        if (start != null && end != null) {
-          int s = start.getValue(), e = end.getValue();
-          if (s <= e) {
-            for (int i = s; i <= e; i++) result.add(DayOfWeek.of(i));
-          } else {                     // wraps past Sunday back to Monday
-            for (int i = s; i <= 7; i++) result.add(DayOfWeek.of(i));
-            for (int i = 1; i <= e; i++) result.add(DayOfWeek.of(i));
-          }
-        }
-      } else {
-        DayOfWeek day = parseDay(part);
-        if (day != null) result.add(day);
-      }
-    }
-    return result;
+    return toDays(availabilityMask(input));
   }
 
   /**
@@ -123,15 +123,111 @@ public final class KioskLogic {
    */
   public static DayOfWeek parseDay(String text) {
     if (text == null) return null;
-    return switch (text.trim().toLowerCase()) {
-      case "mon", "monday"                     -> DayOfWeek.MONDAY;
-      case "tue", "tues", "tuesday"            -> DayOfWeek.TUESDAY;
-      case "wed", "wednesday"                  -> DayOfWeek.WEDNESDAY;
-      case "thu", "thur", "thurs", "thursday" -> DayOfWeek.THURSDAY;
-      case "fri", "friday"                     -> DayOfWeek.FRIDAY;
-      case "sat", "saturday"                   -> DayOfWeek.SATURDAY;
-      case "sun", "sunday"                     -> DayOfWeek.SUNDAY;
-      default                                  -> null;
-    };
+    int day = scanDay(text, 0, text.length());
+    return day == 0 ? null : DayOfWeek.of(day);
+  }
+
+  // ── Day-availability masks ───────────────────────────────────────────────
+
+  /**
+   * Returns the availability mask for a comma-separated {@code availableDays} string, using the
+   * same token rules as {@link #parseAvailableDays}. Results are cached by input string.
+   *
+   * @param input comma-separated day string; may be {@code null} or blank
+   * @return 7-bit mask (bit 0 = Monday … bit 6 = Sunday); {@code 0} when no day matches
+   */
+  public static int availabilityMask(String input) {
+    if (input == null || input.isBlank()) return 0;
+    Integer cached = MASK_CACHE.get(input);
+    if (cached != null) return cached;
+    int mask = scanMask(input);
+    if (MASK_CACHE.size() < MASK_CACHE_LIMIT) {
+      MASK_CACHE.put(input, mask);      // 0..127 are boxed from the Integer cache
+    }
+    return mask;
+  }
+
+  /** Returns the mask bit for {@code day}. */
+  public static int dayBit(DayOfWeek day) {
+    return 1 << (day.getValue() - 1);
+  }
+
+  /** Returns {@code true} when {@code mask} includes {@code day}. */
+  public static boolean isAvailableOn(int mask, DayOfWeek day) {
+    return (mask & dayBit(day)) != 0;
+  }
+
+  /** Returns {@code true} when {@code availableDays} includes {@code day}. */
+  public static boolean isAvailableOn(String availableDays, DayOfWeek day) {
+    return isAvailableOn(availabilityMask(availableDays), day);
+  }
+
+  /**
+   * Returns the zero-based sort index (0 = Mon … 6 = Sun) of the earliest day in {@code mask},
+   * or {@code 7} when the mask is empty.
+   */
+  public static int firstDayOrder(int mask) {
+    return (mask & ALL_DAYS) == 0 ? 7 : Integer.numberOfTrailingZeros(mask);
+  }
+
+  /** Expands {@code mask} into a new, mutable {@link Set} of {@link DayOfWeek}. */
+  public static Set<DayOfWeek> toDays(int mask) {
+    Set<DayOfWeek> result = EnumSet.noneOf(DayOfWeek.class);
+    for (int i = 0; i < 7; i++) {
+      if ((mask & (1 << i)) != 0) result.add(DayOfWeek.of(i + 1));
+    }
+    return result;
+  }
+
+  /** Scans comma-separated tokens without splitting or copying the input. */
+  private static int scanMask(String input) {
+    int mask = 0;
+    int tokenStart = 0;
+    int length = input.length();
+    for (int i = 0; i <= length; i++) {
+      if (i == length || input.charAt(i) == ',') {
+        mask |= scanToken(input, tokenStart, i);
+        tokenStart = i + 1;
+      }
+    }
+    return mask;
+  }
+
+  /** Mask for a single day or {@code start-end} range token in {@code input[from, to)}. */
+  private static int scanToken(String input, int from, int to) {
+    int dash = input.indexOf('-', from);
+    if (dash < 0 || dash >= to) {
+      int day = scanDay(input, from, to);
+      return day == 0 ? 0 : 1 << (day - 1);
+    }
+    int start = scanDay(input, from, dash);
+    int end   = scanDay(input, dash + 1, to);
+    if (start == 0 || end == 0) return 0;
+    if (start <= end) return rangeMask(start, end);
+    return rangeMask(start, 7) | rangeMask(1, end);   // wraps past Sunday back to Monday
+  }
+
+  /** Mask with days {@code start..end} (1-based, inclusive, {@code start <= end}) set. */
+  private static int rangeMask(int start, int end) {
+    return ((1 << end) - 1) & ~((1 << (start - 1)) - 1);
+  }
+
+  /**
+   * Matches {@code input[from, to)}, trimmed, against {@link #DAY_ALIASES}.
+   *
+   * @return 1-based day ({@code DayOfWeek.getValue()}), or {@code 0} when unrecognised
+   */
+  private static int scanDay(String input, int from, int to) {
+    while (from < to && input.charAt(from) <= ' ') from++;
+    while (to > from && input.charAt(to - 1) <= ' ') to--;
+    int length = to - from;
+    for (int d = 0; d < DAY_ALIASES.length; d++) {
+      for (String alias : DAY_ALIASES[d]) {
+        if (alias.length() == length && input.regionMatches(true, from, alias, 0, length)) {
+          return d + 1;
+        }
+      }
+    }
+    return 0;
   }
 }
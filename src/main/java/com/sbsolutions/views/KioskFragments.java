@@ -0,0 +1,139 @@
+package com.sbsolutions.views;
+
+import com.sbsolutions.services.MenuItem;
+import com.sbsolutions.services.PriceRow;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.HtmlUtils;
+
+/**
+ * Kiosk markup rendered once and shared by every attached kiosk.
+ *
+ * <p>A page of product cards, the price list and today's specials are rendered to immutable
+ * HTML strings, cached by their content. Every {@link KioskView} showing the same page of the
+ * same menu gets the same {@code String} instance and binds it as the {@code innerHTML} of one
+ * element, so a kiosk session holds a handful of elements instead of a component per card, and
+ * a menu version is rendered once however many kiosks are attached. The session-less
+ * {@code /display} page is assembled from the same fragments. Content that did not change
+ * between versions hits the cache and is not rendered again.
+ *
+ * <p>The cache keeps the {@link #MAX_ENTRIES} most recently used fragments, which covers the
+ * pages of all page sizes in use for the current and the previous menu version. Its lock is only
+ * held to look up and insert: a miss renders outside it, so a kiosk rendering a new page does
+ * not hold up kiosks whose pages are cached. Two kiosks missing the same page at once may both
+ * render it, and the first one stored is the one both get.
+ */
+@Component
+public class KioskFragments {
+
+  static final int MAX_ENTRIES = 512;
+
+  private final Map<Object, String> cache = Collections.synchronizedMap(
+      new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, String> eldest) {
+          return size() > MAX_ENTRIES;
+        }
+      });
+
+  /** Product cards of one page, in order. */
+  public String cards(List<MenuItem> page) {
+    return cached(new CardsKey(List.copyOf(page)), key -> {
+      StringBuilder html = new StringBuilder(page.size() * 256);
+      for (MenuItem item : key.items()) appendCard(html, item);
+      return html.toString();
+    });
+  }
+
+  /** Rows of the price list. */
+  public String priceRows(List<PriceRow> rows) {
+    return cached(new PricesKey(List.copyOf(rows)), key -> {
+      StringBuilder html = new StringBuilder(rows.size() * 160);
+      for (PriceRow row : key.rows()) appendPriceRow(html, row);
+      return html.toString();
+    });
+  }
+
+  /** Specials cards for {@code day}, whose price flips between regular and special price. */
+  public String specials(List<MenuItem> specials, LocalDate day) {
+    return cached(new SpecialsKey(List.copyOf(specials), day), key -> {
+      StringBuilder html = new StringBuilder(specials.size() * 256);
+      for (MenuItem special : key.items()) appendSpecialCard(html, special, key.day());
+      return html.toString();
+    });
+  }
+
+  /** Number of fragments currently cached. */
+  int size() {
+    return cache.size();
+  }
+
+  private <K> String cached(K key, Function<K, String> render) {
+    String html = cache.get(key);
+    if (html != null) return html;
+    String rendered = render.apply(key);
+    String raced = cache.putIfAbsent(key, rendered);
+    return raced != null ? raced : rendered;
+  }
+
+  private record CardsKey(List<MenuItem> items) {}
+
+  private record PricesKey(List<PriceRow> rows) {}
+
+  private record SpecialsKey(List<MenuItem> items, LocalDate day) {}
+
+  // Markup mirrors the classes styled in kiosk-view.css.
+
+  private static void appendCard(StringBuilder html, MenuItem item) {
+    html.append("<div class=\"kiosk-card\"><div class=\"kiosk-card-media\"><div class=\"kiosk-card-left\">");
+    if (item.daysText() != null) {
+      html.append("<span class=\"kiosk-card-days\">").append(escape(item.daysText())).append("</span>");
+    }
+    html.append("</div>");
+    if (item.cardImageUrl() != null) {
+      appendImage(html, "kiosk-card-img", item.cardImageUrl(), item.description());
+    } else {
+      html.append("<div class=\"kiosk-card-img-placeholder\"></div>");
+    }
+    html.append("</div><span class=\"kiosk-card-name\">").append(escape(item.description()))
+        .append("</span></div>");
+  }
+
+  private static void appendPriceRow(StringBuilder html, PriceRow row) {
+    html.append("<div class=\"kiosk-prices-row\">")
+        .append("<span class=\"kiosk-prices-desc\">").append(escape(row.description())).append("</span>")
+        .append("<span class=\"kiosk-prices-unit\">").append(escape(row.unit())).append("</span>")
+        .append("<span class=\"kiosk-prices-price\">").append(escape(row.priceText())).append("</span>")
+        .append("</div>");
+  }
+
+  private static void appendSpecialCard(StringBuilder html, MenuItem special, LocalDate day) {
+    html.append("<div class=\"kiosk-specials-card\">");
+    if (special.specialImageUrl() != null) {
+      appendImage(html, "kiosk-specials-img", special.specialImageUrl(), special.description());
+    }
+    html.append("<span class=\"kiosk-specials-name\">").append(escape(special.description())).append("</span>");
+    if (special.daysText() != null) {
+      html.append("<span class=\"kiosk-specials-days\">").append(escape(special.daysText())).append("</span>");
+    }
+    String priceText = special.specialsPriceText(day);
+    if (priceText != null) {
+      html.append("<span class=\"kiosk-specials-price\">").append(escape(priceText)).append("</span>");
+    }
+    html.append("</div>");
+  }
+
+  private static void appendImage(StringBuilder html, String className, String src, String alt) {
+    html.append("<img class=\"").append(className).append("\" src=\"").append(escape(src))
+        .append("\" alt=\"").append(escape(alt)).append("\">");
+  }
+
+  private static String escape(String text) {
+    return text == null ? "" : HtmlUtils.htmlEscape(text);
+  }
+}
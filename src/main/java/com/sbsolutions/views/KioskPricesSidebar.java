@@ -0,0 +1,69 @@
+package com.sbsolutions.views;
+
+import com.sbsolutions.components.KioskCarousel;
+import com.sbsolutions.services.MenuItem;
+import com.sbsolutions.services.PriceRow;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.html.Span;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Right-hand column of the kiosk: the price list followed by today's rotating specials.
+ *
+ * <p>Like {@link KioskSection}, the sidebar is created once per view and patched in place. The
+ * price rows and the specials cards are shared {@link KioskFragments}, bound as the
+ * {@code innerHTML} of their container; the specials rotate in a {@link KioskCarousel}.
+ */
+class KioskPricesSidebar extends Div {
+
+  private final KioskFragments fragments;
+  private final Div  priceRowsContainer = new Div();
+  private final Span specialsTitle      = new Span("Specials");
+  private final KioskCarousel specials =
+      new KioskCarousel(Duration.ofSeconds(10), Duration.ofMillis(600));
+  private String priceRowsHtml;
+  private String specialsHtml;
+
+  KioskPricesSidebar(KioskFragments fragments) {
+    this.fragments = fragments;
+    addClassName("kiosk-prices");
+
+    Span pricesTitle = new Span("Prices");
+    pricesTitle.addClassName("kiosk-prices-title");
+    priceRowsContainer.addClassName("kiosk-prices-rows");
+    specialsTitle.addClassName("kiosk-specials-title");
+    specials.addClassName("kiosk-specials");
+    add(pricesTitle, priceRowsContainer, specialsTitle, specials);
+  }
+
+  /** Shows or clears the placeholder displayed until the prices first arrive. */
+  void setLoading(boolean loading) {
+    setClassName("kiosk-loading", loading);
+  }
+
+  /**
+   * Shows {@code prices} and the {@code todaySpecials} for {@code day}.
+   *
+   * @return number of rows and cards re-rendered by this update
+   */
+  int update(List<PriceRow> prices, List<MenuItem> todaySpecials, LocalDate day) {
+    int rendered = 0;
+    String rows = fragments.priceRows(prices);
+    if (!rows.equals(priceRowsHtml)) {
+      priceRowsHtml = rows;
+      priceRowsContainer.getElement().setProperty("innerHTML", rows);
+      rendered += prices.size();
+    }
+
+    specialsTitle.setVisible(!todaySpecials.isEmpty());
+    String cards = fragments.specials(todaySpecials, day);
+    if (!cards.equals(specialsHtml)) {
+      specialsHtml = cards;
+      specials.getElement().setProperty("innerHTML", cards);
+      rendered += todaySpecials.size();
+    }
+    return rendered;
+  }
+}
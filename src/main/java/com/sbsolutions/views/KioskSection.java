@@ -0,0 +1,193 @@
+package com.sbsolutions.views;
+
+import com.sbsolutions.components.KioskCarousel;
+import com.sbsolutions.services.MenuItem;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.html.H4;
+import com.vaadin.flow.dom.Element;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One labelled product row of the kiosk (Donuts, Donut Holes, Rolls).
+ *
+ * <p>The section is created once per view and patched in place on every menu version. Only two
+ * pages exist as components at any time: the one on screen and the next one. When the
+ * {@link KioskCarousel} reports a finished flip, the page that left is dropped and the one after
+ * the new page is built, so memory on the server and in the kiosk no longer grows with the
+ * catalog. A page is a single element whose {@code innerHTML} is the shared fragment from
+ * {@link KioskFragments}; it is only sent again when the fragment for that page changed.
+ *
+ * <p>Pages are swapped whole rather than patched card by card. A menu edit resends at most the
+ * two materialized pages that contain it, each at most {@link #MAX_PAGE_SIZE} cards (a few
+ * kilobytes of markup), never the catalog; the {@code <img>} elements it recreates are answered
+ * from the browser cache after an {@code ETag} revalidation. Keeping a component per card to
+ * patch it would cost every session a component tree per page again, which is what this class
+ * exists to avoid.
+ *
+ * <p>The page size starts at {@link #DEFAULT_PAGE_SIZE} and then follows the capacity the
+ * browser measures: {@link #PAGE_ROWS} rows of as many columns as fit the section's width.
+ */
+class KioskSection extends Div {
+
+  /** Cards per page until the browser has reported how many fit. */
+  static final int DEFAULT_PAGE_SIZE = 12;
+  static final int PAGE_ROWS         = 2;
+  /** Upper bound on a reported capacity, which comes from the client. */
+  static final int MAX_PAGE_SIZE     = 48;
+
+  static final Duration FLIP_INTERVAL   = Duration.ofSeconds(10);
+  static final Duration FLIP_TRANSITION = Duration.ofMillis(500);
+
+  private final KioskFragments fragments;
+  private final KioskCarousel track = new KioskCarousel(FLIP_INTERVAL, FLIP_TRANSITION);
+  /** Materialized pages in display order: the shown page, then the next one. */
+  private final List<Page> window = new ArrayList<>(2);
+  private List<MenuItem> items = List.of();
+  private int pageSize = DEFAULT_PAGE_SIZE;
+  private int current;
+
+  KioskSection(String label, KioskFragments fragments) {
+    this.fragments = fragments;
+    addClassName("kiosk-section");
+
+    H4 sectionLabel = new H4(label);
+    sectionLabel.addClassName("kiosk-section-label");
+    add(sectionLabel);
+
+    Div viewport = new Div();
+    viewport.addClassName("kiosk-viewport");
+    track.addClassName("kiosk-track");
+    track.setRows(PAGE_ROWS);
+    track.addFlipListener(event -> showPage(pageIndex(event.getKey())));
+    track.addCapacityListener(event -> setPageSize(event.getCapacity()));
+    viewport.add(track);
+    add(viewport);
+  }
+
+  /** Shows or clears the placeholder displayed until the section's items first arrive. */
+  void setLoading(boolean loading) {
+    setClassName("kiosk-loading", loading);
+  }
+
+  /**
+   * Shows {@code sorted} (already in display order), {@link #pageSize()} cards per page.
+   *
+   * @return number of cards re-rendered by this update
+   */
+  int update(List<MenuItem> sorted) {
+    items = sorted;
+    return materialize();
+  }
+
+  /** Moves the window to {@code page}, which the carousel now shows. */
+  void showPage(int page) {
+    if (page < 0 || page == current) return;
+    current = page;
+    materialize();
+  }
+
+  /** Re-pages for {@code capacity} cards per page, keeping the first shown card on screen. */
+  void setPageSize(int capacity) {
+    int size = Math.clamp(capacity, 1, MAX_PAGE_SIZE);
+    if (size == pageSize) return;
+    int firstShown = current * pageSize;
+    pageSize = size;
+    current = firstShown / size;
+    materialize();
+  }
+
+  int pageSize() {
+    return pageSize;
+  }
+
+  /** Number of page components currently in the tree. */
+  int materializedPages() {
+    return window.size();
+  }
+
+  /**
+   * Brings the window to the current and the next page, reusing pages that are already
+   * materialized and building only the missing ones.
+   *
+   * @return number of cards on pages whose markup changed
+   */
+  private int materialize() {
+    int numPages = (items.size() + pageSize - 1) / pageSize;
+    if (current >= numPages) current = 0;
+    List<Integer> wanted = numPages == 0 ? List.of()
+        : numPages == 1 ? List.of(current)
+        : List.of(current, (current + 1) % numPages);
+
+    List<Page> next = new ArrayList<>(wanted.size());
+    for (int index : wanted) {
+      Page page = window.stream().filter(p -> p.index() == index).findFirst().orElse(null);
+      if (page == null) {
+        Div div = new Div();
+        div.addClassName("kiosk-page");
+        div.getElement().setAttribute("data-key", String.valueOf(index));
+        page = new Page(index, div);
+      } else {
+        window.remove(page);
+      }
+      next.add(page);
+    }
+    for (Page stale : window) {
+      track.remove(stale.div());
+    }
+    window.clear();
+    window.addAll(next);
+
+    Element parent = track.getElement();
+    int created = 0;
+    for (int i = 0; i < window.size(); i++) {
+      Page page = window.get(i);
+      Element child = page.div().getElement();
+      if (i >= parent.getChildCount() || !parent.getChild(i).equals(child)) {
+        parent.insertChild(i, child);
+      }
+      int start = page.index() * pageSize;
+      int end = Math.min(start + pageSize, items.size());
+      created += page.show(fragments.cards(items.subList(start, end)), end - start);
+    }
+    return created;
+  }
+
+  private static int pageIndex(String key) {
+    try {
+      return Integer.parseInt(key);
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  /** One materialized page and the fragment it currently shows. */
+  private static final class Page {
+
+    private final int index;
+    private final Div div;
+    private String html;
+
+    Page(int index, Div div) {
+      this.index = index;
+      this.div   = div;
+    }
+
+    int index() {
+      return index;
+    }
+
+    Div div() {
+      return div;
+    }
+
+    /** @return {@code cards} when {@code fragment} replaced the page's markup, else 0 */
+    int show(String fragment, int cards) {
+      if (fragment.equals(html)) return 0;
+      html = fragment;
+      div.getElement().setProperty("innerHTML", fragment);
+      return cards;
+    }
+  }
+}
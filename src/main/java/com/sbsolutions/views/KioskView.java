@@ -1,43 +1,31 @@
 package com.sbsolutions.views;
 
-import com.sbsolutions.api.DonutsClient;
-import com.sbsolutions.api.PricingSheetClient;
-import com.sbsolutions.api.RollClient;
-import com.sbsolutions.order.models.Donut;
-import com.sbsolutions.order.models.ItemType;
-import com.sbsolutions.order.models.PricingSheet;
-import com.sbsolutions.order.models.Roll;
-import com.sbsolutions.util.KioskLogic;
+import com.sbsolutions.components.KioskClock;
+import com.sbsolutions.services.MenuBroadcaster;
+import com.sbsolutions.services.MenuItem;
+import com.sbsolutions.services.MenuMetrics;
+import com.sbsolutions.services.MenuSections;
+import com.sbsolutions.services.MenuSnapshot;
+import com.sbsolutions.services.MenuSnapshotService;
 import com.vaadin.flow.component.AttachEvent;
 import com.vaadin.flow.component.DetachEvent;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.html.Div;
-import com.vaadin.flow.component.html.H3;
-import com.vaadin.flow.component.html.H4;
-import com.vaadin.flow.component.html.Image;
 import com.vaadin.flow.component.html.Span;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
 import com.vaadin.flow.server.auth.AnonymousAllowed;
-import java.math.BigDecimal;
-import java.time.DayOfWeek;
+import com.vaadin.flow.shared.Registration;
+import java.lang.management.ManagementFactory;
 import java.time.LocalDate;
-import java.time.LocalTime;
 import java.time.ZoneId;
-import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
-import java.util.Set;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 
 @PageTitle("Kiosk Menu")
 @Route(value = "", autoLayout = false)
@@ -46,28 +34,46 @@ public class KioskView extends VerticalLayout {
 
   private static final Logger log = LoggerFactory.getLogger(KioskView.class);
 
-  private static final ScheduledExecutorService SCHEDULER =
-      Executors.newSingleThreadScheduledExecutor(r -> {
-        Thread t = new Thread(r, "kiosk-refresh");
-        t.setDaemon(true);
-        return t;
-      });
-
-  private final DonutsClient       donutsClient;
-  private final RollClient         rollClient;
-  private final PricingSheetClient pricingSheetClient;
-  private final Div currentTime;
-  private ScheduledFuture<?>       refreshTask;
+  private static final DateTimeFormatter HEADER_DATE    = DateTimeFormatter.ofPattern("EEEE, MMMM d, yyyy");
+  private static final DateTimeFormatter REFRESHED_TIME = DateTimeFormatter.ofPattern("h:mm:ss a");
+
+  /**
+   * Set by the first kiosk constructed in this JVM; its time is the startup figure we track. It
+   * is logged from the constructor, so it is the first paint: the menu when a snapshot is already
+   * loaded, otherwise the header and loading placeholders, before any order-data call returns.
+   */
+  private static final AtomicBoolean FIRST_RENDER = new AtomicBoolean();
+
+  private final MenuSnapshotService menuSnapshotService;
+  private final MenuBroadcaster     menuBroadcaster;
+  private final MenuMetrics         menuMetrics;
+  private final ZoneId              storeZone;
+  private final KioskClock          currentTime;
+  private Registration             broadcasterRegistration;
+  private Registration             heartbeatRegistration;
+  private long                     renderedVersion = -1;
+  private LocalDate                renderedDay;
   private final Div  content        = new Div();
-  private final Div  pricesSidebar  = new Div();
+  private final KioskPricesSidebar pricesSidebar;
   private final Span headerDate     = new Span();
   private final Span lastRefreshed  = new Span();
 
-  public KioskView(DonutsClient donutsClient, RollClient rollClient,
-      PricingSheetClient pricingSheetClient) {
-    this.donutsClient       = donutsClient;
-    this.rollClient         = rollClient;
-    this.pricingSheetClient = pricingSheetClient;
+  private final KioskSection donutsSection;
+  private final KioskSection donutHolesSection;
+  private final KioskSection rollsSection;
+  private final Span         emptyMessage      = new Span("No products available at this time.");
+
+  public KioskView(MenuSnapshotService menuSnapshotService, MenuBroadcaster menuBroadcaster,
+      MenuMetrics menuMetrics, KioskFragments fragments,
+      @Value("${kiosk.time-zone:America/Chicago}") ZoneId storeZone) {
+    this.menuSnapshotService = menuSnapshotService;
+    this.menuBroadcaster     = menuBroadcaster;
+    this.menuMetrics         = menuMetrics;
+    this.storeZone           = storeZone;
+    this.donutsSection       = new KioskSection("Donuts", fragments);
+    this.donutHolesSection   = new KioskSection("Donut Holes", fragments);
+    this.rollsSection        = new KioskSection("Rolls", fragments);
+    this.pricesSidebar       = new KioskPricesSidebar(fragments);
 
     setSizeFull();
     setPadding(false);
@@ -87,15 +93,10 @@ public class KioskView extends VerticalLayout {
     Div headerRight = new Div();
     headerRight.addClassName("kiosk-header-right");
 
-    currentTime = new Div();
+    currentTime = new KioskClock(storeZone);
     currentTime.addClassName("kiosk-header-refreshed");
 
     headerRight.add(headerDate, currentTime, lastRefreshed);
-    updateTime();
-
-    UI.getCurrent().setPollInterval(1000);
-
-    UI.getCurrent().addPollListener(e -> updateTime());
 
     header.add(brand, headerRight);
     add(header);
@@ -104,330 +105,130 @@ public class KioskView extends VerticalLayout {
     main.addClassName("kiosk-main");
 
     content.addClassName("kiosk-content");
-    pricesSidebar.addClassName("kiosk-prices");
+    emptyMessage.addClassName("kiosk-empty");
+    content.add(donutsSection, donutHolesSection, rollsSection, emptyMessage);
 
     main.add(content, pricesSidebar);
     add(main);
 
-    loadData();
-  }
-
-  private void updateTime() {
-    ZoneId zone = ZoneId.of("America/Chicago");
-
-    currentTime.setText(
-        ZonedDateTime.now(ZoneId.systemDefault()).format(DateTimeFormatter.ofPattern("h:mm:ss a"))
-    );
+    // Never wait for order-data while building the route: render what is already known, or
+    // placeholders that onAttach fills in as each part of the first fetch arrives.
+    menuSnapshotService.currentSnapshot().ifPresentOrElse(this::render, this::renderSkeleton);
+    if (FIRST_RENDER.compareAndSet(false, true)) {
+      log.info("First kiosk render {} ms after JVM start", ManagementFactory.getRuntimeMXBean().getUptime());
+    }
   }
 
   @Override
   protected void onAttach(AttachEvent event) {
     super.onAttach(event);
     UI ui = event.getUI();
-    refreshTask = SCHEDULER.scheduleAtFixedRate(
-        () -> ui.access(this::refresh),
-        15, 15, TimeUnit.MINUTES
-    );
+    broadcasterRegistration = menuBroadcaster.register(
+        snapshot -> ui.access(() -> pushRender(snapshot)));
+    heartbeatRegistration = menuBroadcaster.onHeartbeat(
+        snapshot -> ui.access(() -> showRefreshed(snapshot)));
+    if (menuSnapshotService.currentSnapshot().isPresent()) {
+      // catch up on a version published while this view was detached
+      render(menuSnapshotService.getSnapshot());
+    } else {
+      streamSections(ui, menuSnapshotService.sections());
+    }
   }
 
   @Override
   protected void onDetach(DetachEvent event) {
     super.onDetach(event);
-    if (refreshTask != null) {
-      refreshTask.cancel(false);
-      refreshTask = null;
+    if (broadcasterRegistration != null) {
+      broadcasterRegistration.remove();
+      broadcasterRegistration = null;
     }
-  }
-
-  private void refresh() {
-    log.info("Refreshing kiosk products from database");
-    loadData();
-  }
-
-  private void loadData() {
-    List<Donut>         donuts        = List.of();
-    List<Roll>          rolls         = List.of();
-    List<PricingSheet>  pricingSheets = List.of();
-
-    var donutTypes = new ItemType[]{ItemType.CAKE_DONUT, ItemType.GLAZED_DONUT, ItemType.RAISED_DONUT, ItemType.MIX};
-    var rollTypes = new ItemType[] {ItemType.ROLL, ItemType.MIX};
-    var donutHoleTypes = new ItemType[] {ItemType.CAKE_DONUT_HOLES, ItemType.GLAZED_DONUT_HOLES, ItemType.RAISED_DONUT_HOLES};
-
-    try { donuts        = donutsClient.findByItemTypes(donutTypes);        } catch (Exception e) { log.warn("Could not load donuts: {}",          e.getMessage()); }
-    try { rolls         = rollClient.findByItemTypes(rollTypes);           } catch (Exception e) { log.warn("Could not load rolls: {}",           e.getMessage()); }
-    try { pricingSheets = pricingSheetClient.findAll();   } catch (Exception e) { log.warn("Could not load pricing sheets: {}",  e.getMessage()); }
-
-    headerDate.setText(LocalDate.now(ZoneId.systemDefault()).format(DateTimeFormatter.ofPattern("EEEE, MMMM d, yyyy")));
-    lastRefreshed.setText("Last refreshed: " + LocalTime.now(ZoneId.systemDefault()).format(DateTimeFormatter.ofPattern("h:mm:ss a")));
-
-    content.removeAll();
-
-    List<Donut> donutHoles = donutsClient.findByItemTypes(donutHoleTypes);
-
-    if (!donuts.isEmpty()) content.add(createSection("Donuts",      donuts));
-    if (!donutHoles.isEmpty())    content.add(createSection("Donut Holes", donutHoles));
-    if (!rolls.isEmpty())         content.add(createSection("Rolls",       rolls));
-
-    if (donuts.isEmpty() && rolls.isEmpty() && donutHoles.isEmpty()) {
-      Span empty = new Span("No products available at this time.");
-      empty.addClassName("kiosk-empty");
-      content.add(empty);
+    if (heartbeatRegistration != null) {
+      heartbeatRegistration.remove();
+      heartbeatRegistration = null;
     }
-
-    List<Donut> allProducts = new ArrayList<>();
-    allProducts.addAll(donuts);
-    allProducts.addAll(rolls);
-    allProducts.addAll(donutHoles);
-
-    buildPricesSidebar(pricingSheets, allProducts);
   }
 
-  private void buildPricesSidebar(List<PricingSheet> sheets, List<Donut> allProducts) {
-    pricesSidebar.removeAll();
-
-    // ── Prices ───────────────────────────────────────────────
-    Span title = new Span("Prices");
-    title.addClassName("kiosk-prices-title");
-    pricesSidebar.add(title);
-
-    sheets.stream()
-        .sorted(Comparator.comparing(PricingSheet::getOrder,
-            Comparator.nullsLast(Comparator.naturalOrder())))
-        .forEach(sheet -> {
-          Div row = new Div();
-          row.addClassName("kiosk-prices-row");
-
-          Span desc = new Span(sheet.getDescription() != null ? sheet.getDescription() : "");
-          desc.addClassName("kiosk-prices-desc");
-
-          Span unit = new Span(sheet.getUnit() != null ? sheet.getUnit() : "");
-          unit.addClassName("kiosk-prices-unit");
-
-          String priceStr = sheet.getPrice() != null
-              ? String.format("$%.2f", sheet.getPrice()) : "";
-          Span price = new Span(priceStr);
-          price.addClassName("kiosk-prices-price");
-
-          row.add(desc, unit, price);
-          pricesSidebar.add(row);
-        });
-
-    // ── Specials ─────────────────────────────────────────────
-    DayOfWeek today = LocalDate.now().getDayOfWeek();
-
-    List<Donut> todaySpecials = allProducts.stream()
-        .filter(d -> notBlank(d.getAvailableDays())
-            && parseAvailableDays(d.getAvailableDays()).contains(today)
-            || isTodaySpecial(d)
-        )
-        .toList();
-
-
-    if (!todaySpecials.isEmpty()) {
-      Span specialsTitle = new Span("Specials");
-      specialsTitle.addClassName("kiosk-specials-title");
-      pricesSidebar.add(specialsTitle);
-
-      for (int i = 0; i < todaySpecials.size(); i++) {
-        Donut special = todaySpecials.get(i);
-
-        Div card = new Div();
-        card.addClassName("kiosk-specials-card");
-        if (i > 0) {
-          card.getStyle().set("display", "none").set("opacity", "0");
-        }
-
-        String imgUrl = bestImageUrl(special);
-        if (imgUrl != null) {
-          Image img = new Image(imgUrl, special.getDescription() != null ? special.getDescription() : "");
-          img.addClassName("kiosk-specials-img");
-          card.add(img);
-        }
-
-        Span name = new Span(special.getDescription() != null ? special.getDescription() : "");
-        name.addClassName("kiosk-specials-name");
-        card.add(name);
-
-        if (notBlank(special.getAvailableDays())) {
-          Span days = new Span(special.getAvailableDays().replace(",", " · "));
-          days.addClassName("kiosk-specials-days");
-          card.add(days);
-        }
-
-        BigDecimal price;
-        if (isTodaySpecial(special)) {
-          price = special.getSpecialPrice();
-        } else {
-          price = special.getPrice();
-        }
-
-        if (price != null) {
-          String priceText = String.format("$%.2f", price);
-          if (notBlank(special.getUnit())) {
-            priceText += " / " + special.getUnit();
-          }
-          Span priceSpan = new Span(priceText);
-          priceSpan.addClassName("kiosk-specials-price");
-          card.add(priceSpan);
-        }
-
-        pricesSidebar.add(card);
-      }
-
-      if (todaySpecials.size() > 1) {
-        pricesSidebar.getElement().executeJs(
-            "if (window._kioskSpecialsTimer) clearInterval(window._kioskSpecialsTimer);" +
-            "var cards = $0.querySelectorAll('.kiosk-specials-card');" +
-            "var cur = 0;" +
-            "window._kioskSpecialsTimer = setInterval(function() {" +
-            "  var outCard = cards[cur];" +
-            "  outCard.style.opacity = '0';" +
-            "  setTimeout(function() {" +
-            "    outCard.style.display = 'none';" +
-            "    cur = (cur + 1) % cards.length;" +
-            "    var inCard = cards[cur];" +
-            "    inCard.style.display = '';" +
-            "    inCard.offsetHeight;" +
-            "    inCard.style.opacity = '1';" +
-            "  }, 600);" +
-            "}, 10000);",
-            pricesSidebar.getElement()
-        );
-      }
+  /** Header and loading placeholders shown until the first menu data arrives. */
+  private void renderSkeleton() {
+    headerDate.setText(LocalDate.now(storeZone).format(HEADER_DATE));
+    lastRefreshed.setText("Loading menu…");
+    emptyMessage.setVisible(false);
+    for (KioskSection section : List.of(donutsSection, donutHolesSection, rollsSection)) {
+      section.setLoading(true);
     }
+    pricesSidebar.setLoading(true);
   }
 
-  private Div createSection(String label, List<? extends Donut> items) {
-    Div section = new Div();
-    section.addClassName("kiosk-section");
-
-    H4 sectionLabel = new H4(label);
-    sectionLabel.addClassName("kiosk-section-label");
-    section.add(sectionLabel);
-
-    section.add(createScrollingRow(items));
-
-    return section;
-  }
-
-  private static final int PAGE_SIZE = 12;
-
-  private Div createScrollingRow(List<? extends Donut> items) {
-    Div viewport = new Div();
-    viewport.addClassName("kiosk-viewport");
-
-    Div track = new Div();
-    track.addClassName("kiosk-track");
-
-    List<? extends Donut> sorted = items.stream()
-        .sorted(Comparator.comparingInt(d -> d.getOrder() == null ? Integer.MAX_VALUE : d.getOrder()))
-        .toList();
-
-    int numPages = (sorted.size() + PAGE_SIZE - 1) / PAGE_SIZE;
-
-    for (int p = 0; p < numPages; p++) {
-      Div page = new Div();
-      page.addClassName("kiosk-page");
-      if (p > 0) page.getStyle().set("display", "none");
-
-      int start = p * PAGE_SIZE;
-      int end = Math.min(start + PAGE_SIZE, sorted.size());
-      for (int i = start; i < end; i++) {
-        page.add(createCard(sorted.get(i)));
-      }
-      track.add(page);
-    }
-
-    if (numPages > 1) {
-      track.getElement().executeJs(
-          "var el = $0;" +
-          "if (el._kioskFlip) clearInterval(el._kioskFlip);" +
-          "var pages = el.querySelectorAll('.kiosk-page');" +
-          "var cur = 0;" +
-          "el._kioskFlip = setInterval(function() {" +
-          "  var out = pages[cur];" +
-          "  out.classList.add('kiosk-page-exit');" +
-          "  setTimeout(function() {" +
-          "    out.style.display = 'none';" +
-          "    out.classList.remove('kiosk-page-exit');" +
-          "    cur = (cur + 1) % pages.length;" +
-          "    var inn = pages[cur];" +
-          "    inn.style.display = '';" +
-          "    inn.offsetHeight;" +
-          "    inn.classList.add('kiosk-page-enter');" +
-          "    setTimeout(function() { inn.classList.remove('kiosk-page-enter'); }, 600);" +
-          "  }, 500);" +
-          "}, 10000);",
-          track.getElement()
-      );
-    }
-
-    viewport.add(track);
-    return viewport;
+  /**
+   * Pushes each part of the first fetch into its section as soon as it arrives. The stages
+   * complete on fetch threads, so the UI lock is only taken to bind already-compiled data.
+   * Once a full snapshot has been rendered, late parts are ignored.
+   */
+  private void streamSections(UI ui, MenuSections sections) {
+    sections.donuts().thenAccept(items -> ui.access(() -> renderPart(donutsSection, items)));
+    sections.donutHoles().thenAccept(items -> ui.access(() -> renderPart(donutHolesSection, items)));
+    sections.rolls().thenAccept(items -> ui.access(() -> renderPart(rollsSection, items)));
+    sections.prices().thenAccept(prices -> ui.access(() -> {
+      if (renderedVersion >= 0) return;
+      pricesSidebar.setLoading(false);
+      pricesSidebar.update(prices, List.of(), LocalDate.now(storeZone));
+    }));
   }
 
-  private Div createCard(Donut item) {
-    Div card = new Div();
-    card.addClassName("kiosk-card");
-
-    // ── Media row: [left info | image] ───────────────────────
-    Div mediaRow = new Div();
-    mediaRow.addClassName("kiosk-card-media");
-
-    // Left column: price + available days
-    Div left = new Div();
-    left.addClassName("kiosk-card-left");
-
-    if (item.getAvailableDays() != null && !item.getAvailableDays().isBlank()) {
-      Span days = new Span(item.getAvailableDays().replace(",", " · "));
-      days.addClassName("kiosk-card-days");
-      left.add(days);
-    }
-
-    mediaRow.add(left);
-
-    // Image (right side)
-    String imgUrl = bestImageUrl(item);
-    if (imgUrl != null) {
-      Image img = new Image(imgUrl, item.getDescription());
-      img.addClassName("kiosk-card-img");
-      mediaRow.add(img);
-    } else {
-      Div placeholder = new Div();
-      placeholder.addClassName("kiosk-card-img-placeholder");
-      mediaRow.add(placeholder);
-    }
-
-    card.add(mediaRow);
-
-    // Name below the media row
-    Span name = new Span(item.getDescription());
-    name.addClassName("kiosk-card-name");
-    card.add(name);
-
-    return card;
+  private void renderPart(KioskSection section, List<MenuItem> items) {
+    if (renderedVersion >= 0) return;
+    section.setLoading(false);
+    updateSection(section, items);
   }
 
-  private String bestImageUrl(Donut item) {
-    return KioskLogic.bestImageUrl(item);
+  /**
+   * Moves "Last refreshed" to the time a poll confirmed the menu unchanged. Only the header text
+   * changes; a snapshot with another version is left to its scheduled render.
+   */
+  private void showRefreshed(MenuSnapshot snapshot) {
+    if (snapshot.version() != renderedVersion) return;
+    lastRefreshed.setText(refreshedText(snapshot));
   }
 
-  private int dayOrder(String availableDays) {
-    return KioskLogic.dayOrder(availableDays);
+  private String refreshedText(MenuSnapshot snapshot) {
+    return "Last refreshed: " + snapshot.fetchedAt().atZone(storeZone).format(REFRESHED_TIME);
   }
 
-  private Set<DayOfWeek> parseAvailableDays(String input) {
-    return KioskLogic.parseAvailableDays(input);
+  /** Renders a broadcast snapshot under the UI lock and records how long the lock was held. */
+  private void pushRender(MenuSnapshot snapshot) {
+    long start = System.nanoTime();
+    int created = render(snapshot);
+    if (created >= 0) menuMetrics.recordRender(System.nanoTime() - start, created);
   }
 
-  private boolean notBlank(String s) {
-    return KioskLogic.notBlank(s);
+  /** @return number of cards and rows re-rendered, or {@code -1} when the snapshot was already shown */
+  private int render(MenuSnapshot snapshot) {
+    LocalDate today = LocalDate.now(storeZone);
+    lastRefreshed.setText(refreshedText(snapshot));
+    if (snapshot.version() == renderedVersion && today.equals(renderedDay)) return -1;
+    log.info("Rendering menu version {}", snapshot.version());
+    renderedVersion = snapshot.version();
+    renderedDay     = today;
+
+    for (KioskSection section : List.of(donutsSection, donutHolesSection, rollsSection)) {
+      section.setLoading(false);
+    }
+    pricesSidebar.setLoading(false);
+    headerDate.setText(today.format(HEADER_DATE));
+
+    int created = 0;
+    created += updateSection(donutsSection,     snapshot.donuts());
+    created += updateSection(donutHolesSection, snapshot.donutHoles());
+    created += updateSection(rollsSection,      snapshot.rolls());
+    emptyMessage.setVisible(snapshot.hasNoProducts());
+
+    created += pricesSidebar.update(snapshot.prices(), snapshot.specialsOn(today), today);
+    log.debug("Menu version {} applied with {} re-rendered card(s) and row(s)", snapshot.version(), created);
+    return created;
   }
 
-  private <T extends Donut> boolean isTodaySpecial(T item) {
-    if (item.getSpecialPriceDate() == null) return false;
-    LocalDate specialDate = item.getSpecialPriceDate().toInstant()
-        .atZone(ZoneId.systemDefault()).toLocalDate();
-    return specialDate.equals(LocalDate.now(ZoneId.systemDefault()));
+  private int updateSection(KioskSection section, List<MenuItem> items) {
+    section.setVisible(!items.isEmpty());
+    return section.update(items);
   }
 }
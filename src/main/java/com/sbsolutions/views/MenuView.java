@@ -1,26 +1,233 @@
 package com.sbsolutions.views;
 
-import com.vaadin.flow.component.html.H2;
-import com.vaadin.flow.component.html.Paragraph;
+import com.sbsolutions.orders.OrderPipeline;
+import com.sbsolutions.services.MenuBroadcaster;
+import com.sbsolutions.services.MenuCatalog;
+import com.sbsolutions.services.MenuCatalog.Category;
+import com.sbsolutions.services.MenuCatalog.Entry;
+import com.sbsolutions.services.MenuSearchIndex;
+import com.sbsolutions.services.MenuSearchIndex.Hit;
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.DetachEvent;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.button.ButtonVariant;
+import com.vaadin.flow.component.combobox.MultiSelectComboBox;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.grid.GridVariant;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.orderedlayout.FlexComponent;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.data.provider.CallbackDataProvider;
+import com.vaadin.flow.data.provider.ConfigurableFilterDataProvider;
+import com.vaadin.flow.data.provider.DataProvider;
+import com.vaadin.flow.data.provider.Query;
+import com.vaadin.flow.data.provider.QuerySortOrder;
+import com.vaadin.flow.data.provider.SortDirection;
+import com.vaadin.flow.data.renderer.LitRenderer;
+import com.vaadin.flow.data.value.ValueChangeMode;
 import com.vaadin.flow.router.Menu;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
 import com.vaadin.flow.server.auth.AnonymousAllowed;
+import com.vaadin.flow.shared.Registration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import org.vaadin.lineawesome.LineAwesomeIconUrl;
 
+/**
+ * Ordering screen: the whole catalog in one lazily loaded grid.
+ *
+ * <p>The grid asks {@link MenuCatalog} for one page of rows at a time, sorted and filtered on
+ * the server, so a session only holds the rows in the browser's viewport (plus the grid's
+ * buffer) however large the menu is. Rows render through a {@link LitRenderer} template rather
+ * than per-row components. A new menu version refreshes the data provider, which re-fetches
+ * only the visible range.
+ *
+ * <p>Typing in the search field lists the {@link MenuSearchIndex} matches instead, best first;
+ * matching flavors and toppings are offered as suggestions that search for them. Items go into
+ * an {@link OrderCart}, which places orders without waiting for order-data.
+ */
 @PageTitle("Menu")
 @Route(value = "menu", layout = MainLayout.class)
 @Menu(order = 1, icon = LineAwesomeIconUrl.SHOPPING_BAG_SOLID)
 @AnonymousAllowed
 public class MenuView extends VerticalLayout {
 
-  public MenuView() {
-    setAlignItems(Alignment.CENTER);
+  static final int PAGE_SIZE = 50;
 
-    H2 title = new H2("Order Menu");
-    Paragraph placeholder = new Paragraph("Menu items will appear here.");
+  /** Most search matches listed in the grid. */
+  static final int SEARCH_LIMIT = 200;
 
-    add(title, placeholder);
+  static final String SORT_NAME = "name";
+  static final String SORT_MENU = "menu";
+
+  /** Grid filter: categories (all when empty) and search text (none when blank). */
+  record Filter(Set<Category> categories, String text) {
+    static final Filter ALL = new Filter(Set.of(), "");
+
+    boolean isSearch() {
+      return text != null && !text.isBlank();
+    }
+  }
+
+  /** One search: the hits of a filter at a catalog version and the grid rows they make. */
+  private record Search(Filter filter, long version, List<Hit> hits, List<Entry> entries) {}
+
+  private final MenuCatalog menuCatalog;
+  private final MenuBroadcaster menuBroadcaster;
+  private final MenuSearchIndex searchIndex;
+  private final Grid<Entry> grid = new Grid<>();
+  private final TextField search = new TextField();
+  private final MultiSelectComboBox<Category> categories = new MultiSelectComboBox<>("Category");
+  private final Div suggestions = new Div();
+  private final OrderCart cart;
+  private final ConfigurableFilterDataProvider<Entry, Void, Filter> dataProvider;
+  private Registration broadcasterRegistration;
+  private Search lastSearch;
+
+  public MenuView(MenuCatalog menuCatalog, MenuSearchIndex searchIndex, MenuBroadcaster menuBroadcaster,
+      OrderPipeline orderPipeline) {
+    this.menuCatalog     = menuCatalog;
+    this.menuBroadcaster = menuBroadcaster;
+    this.searchIndex     = searchIndex;
+    this.cart            = new OrderCart(orderPipeline);
+    setSizeFull();
+
+    search.setLabel("Search");
+    search.setPlaceholder("Donut, flavor or topping");
+    search.setClearButtonVisible(true);
+    search.setValueChangeMode(ValueChangeMode.LAZY);
+    search.setValueChangeTimeout(150);
+
+    categories.setItems(Category.values());
+    categories.setItemLabelGenerator(Category::label);
+    categories.setPlaceholder("All");
+    categories.setClearButtonVisible(true);
+
+    CallbackDataProvider<Entry, Filter> catalog = DataProvider.fromFilteringCallbacks(
+        query -> fetch(query).stream(),
+        query -> count(query.getFilter().orElse(Filter.ALL)));
+    dataProvider = catalog.withConfigurableFilter();
+    search.addValueChangeListener(event -> applyFilter());
+    categories.addValueChangeListener(event -> applyFilter());
+    suggestions.addClassName("menu-suggestions");
+
+    grid.addColumn(LitRenderer.<Entry>of("""
+            <div class="menu-item">
+              <img class="menu-item-img" src="${item.image}" alt="" loading="lazy" ?hidden="${!item.image}">
+              <span>${item.name}</span>
+            </div>""")
+            .withProperty("image", entry -> Objects.toString(entry.item().cardImageUrl(), ""))
+            .withProperty("name", entry -> entry.item().description()))
+        .setHeader("Item").setSortProperty(SORT_NAME).setFlexGrow(3);
+    grid.addColumn(entry -> entry.category().label())
+        .setHeader("Category").setSortProperty(SORT_MENU);
+    grid.addColumn(entry -> Objects.toString(entry.item().daysText(), ""))
+        .setHeader("Days");
+    grid.addColumn(entry -> Objects.toString(entry.item().priceText(), ""))
+        .setHeader("Price");
+    grid.addColumn(LitRenderer.<Entry>of("<vaadin-button theme=\"small\" @click=\"${add}\">Add</vaadin-button>")
+            .withFunction("add", entry -> cart.add(entry.item())))
+        .setAutoWidth(true).setFlexGrow(0);
+    grid.setPageSize(PAGE_SIZE);
+    grid.addThemeVariants(GridVariant.LUMO_ROW_STRIPES);
+    grid.setItems(dataProvider);
+
+    HorizontalLayout filters = new HorizontalLayout(search, categories);
+    filters.setDefaultVerticalComponentAlignment(FlexComponent.Alignment.BASELINE);
+    add(filters, suggestions, grid, cart);
+    setFlexGrow(1, grid);
+  }
+
+  private void applyFilter() {
+    Filter filter = new Filter(categories.getValue(), search.getValue());
+    dataProvider.setFilter(filter);
+
+    suggestions.removeAll();
+    if (!filter.isSearch()) return;
+    List<Hit> hits = results(filter).hits();
+    for (Hit hit : hits.subList(0, Math.min(MenuSearchIndex.TYPEAHEAD_LIMIT, hits.size()))) {
+      if (hit.kind() == MenuSearchIndex.Kind.ITEM || hit.name().equalsIgnoreCase(filter.text().strip())) continue;
+      Button suggestion = new Button(hit.name(), click -> search.setValue(hit.name()));
+      suggestion.addThemeVariants(ButtonVariant.LUMO_SMALL, ButtonVariant.LUMO_TERTIARY);
+      suggestions.add(suggestion);
+    }
+  }
+
+  @Override
+  protected void onAttach(AttachEvent event) {
+    super.onAttach(event);
+    UI ui = event.getUI();
+    broadcasterRegistration = menuBroadcaster.subscribe(snapshot -> ui.access(dataProvider::refreshAll));
+  }
+
+  @Override
+  protected void onDetach(DetachEvent event) {
+    super.onDetach(event);
+    if (broadcasterRegistration != null) {
+      broadcasterRegistration.remove();
+      broadcasterRegistration = null;
+    }
+  }
+
+  /**
+   * One page of {@code query}: search matches in rank order, or the catalog sorted by the first
+   * sort order (the catalog sorts by one key).
+   */
+  private List<Entry> fetch(Query<Entry, Filter> query) {
+    Filter filter = query.getFilter().orElse(Filter.ALL);
+    if (filter.isSearch()) {
+      return results(filter).entries().stream().skip(query.getOffset()).limit(query.getLimit()).toList();
+    }
+    QuerySortOrder order = query.getSortOrders().isEmpty() ? null : query.getSortOrders().getFirst();
+    MenuCatalog.Sort sort = order != null && SORT_NAME.equals(order.getSorted())
+        ? MenuCatalog.Sort.NAME : MenuCatalog.Sort.MENU_ORDER;
+    boolean descending = order != null && order.getDirection() == SortDirection.DESCENDING;
+    return menuCatalog.fetch(filter.categories(), sort, descending, query.getOffset(), query.getLimit());
+  }
+
+  private int count(Filter filter) {
+    return filter.isSearch() ? results(filter).entries().size() : menuCatalog.count(filter.categories());
+  }
+
+  /**
+   * The search for {@code filter}. The grid's count and page fetches and the suggestions of one
+   * filter change all ask for it, so the last one is kept until the filter or the menu changes.
+   */
+  private Search results(Filter filter) {
+    long version = menuCatalog.version();
+    Search last = lastSearch;
+    if (last != null && last.version() == version && last.filter().equals(filter)) return last;
+    List<Hit> hits = searchIndex.search(filter.text(), SEARCH_LIMIT);
+    lastSearch = new Search(filter, version, hits, entries(hits, filter.categories()));
+    return lastSearch;
+  }
+
+  /**
+   * Grid rows of the item {@code hits}, each under a category of {@code categories} (any when
+   * empty); the index lists an item in several categories once, under the first.
+   */
+  private List<Entry> entries(List<Hit> hits, Set<Category> categories) {
+    Map<String, Entry> selected = null;
+    if (!categories.isEmpty()) {
+      selected = new HashMap<>();
+      for (Entry entry : menuCatalog.entries()) {
+        if (categories.contains(entry.category())) selected.putIfAbsent(entry.item().key(), entry);
+      }
+    }
+    List<Entry> entries = new ArrayList<>();
+    for (Hit hit : hits) {
+      if (hit.kind() != MenuSearchIndex.Kind.ITEM) continue;
+      Entry entry = selected == null ? hit.entry() : selected.get(hit.entry().item().key());
+      if (entry != null) entries.add(entry);
+    }
+    return entries;
   }
 }
@@ -0,0 +1,143 @@
+package com.sbsolutions.views;
+
+import com.sbsolutions.orders.Order;
+import com.sbsolutions.orders.OrderConfirmation;
+import com.sbsolutions.orders.OrderPipeline;
+import com.sbsolutions.orders.OrderQueueFullException;
+import com.sbsolutions.services.MenuItem;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.button.ButtonVariant;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.notification.Notification;
+import com.vaadin.flow.component.notification.NotificationVariant;
+import com.vaadin.flow.component.orderedlayout.FlexComponent;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Cart of the ordering screen: quantities per item and a button that places the order through
+ * {@link OrderPipeline}.
+ *
+ * <p>Placing an order only journals and queues it, so the click handler returns at once and
+ * the session lock is never held while order-data is written to. The confirmation is pushed
+ * later with {@code ui.access}. When no decision has come after {@link #CONFIRM_WAIT} (order-data
+ * is slow or down), the customer is told the order is queued and the cart is usable again; the
+ * decision is still pushed when it arrives. The checkout id is kept until an order is decided,
+ * so placing it again after a full queue or a timeout reuses the same idempotency key; changing
+ * the cart starts a new one.
+ */
+class OrderCart extends HorizontalLayout {
+
+  /** How long the cart waits for a decision before reporting the order as queued. */
+  static final Duration CONFIRM_WAIT = Duration.ofSeconds(8);
+
+  private final OrderPipeline            pipeline;
+  private final Map<String, Order.Line>  lines = new LinkedHashMap<>();
+  private final Span                     summary = new Span();
+  private final Button                   place = new Button("Place order");
+  private final Button                   clear = new Button("Clear");
+  private final Set<String>              awaited = new HashSet<>();
+  private String                         checkoutId;
+  private boolean                        sending;
+
+  OrderCart(OrderPipeline pipeline) {
+    this.pipeline = pipeline;
+    addClassName("order-cart");
+    setDefaultVerticalComponentAlignment(FlexComponent.Alignment.CENTER);
+    place.addThemeVariants(ButtonVariant.LUMO_PRIMARY);
+    place.addClickListener(event -> place());
+    clear.addThemeVariants(ButtonVariant.LUMO_TERTIARY);
+    clear.addClickListener(event -> {
+      lines.clear();
+      checkoutId = null;
+      update();
+    });
+    add(summary, clear, place);
+    update();
+  }
+
+  /** Adds one of {@code item}; ignored while an order is being sent. */
+  void add(MenuItem item) {
+    if (sending) return;
+    lines.merge(item.key(), new Order.Line(item.key(), item.description(), 1),
+        (line, one) -> new Order.Line(line.itemKey(), line.description(), line.quantity() + 1));
+    checkoutId = null;
+    update();
+  }
+
+  private void place() {
+    if (lines.isEmpty() || sending) return;
+    if (checkoutId == null) checkoutId = UUID.randomUUID().toString();
+    Order order = new Order(checkoutId, Instant.now(), List.copyOf(lines.values()));
+    UI ui = UI.getCurrent();
+    sending = true;
+    update();
+    CompletableFuture<OrderConfirmation> result = pipeline.submit(order);
+    if (awaited.add(order.id())) {
+      result.whenComplete((confirmation, error) -> ui.access(() -> decided(order.id(), confirmation, error)));
+    }
+    result.copy()
+        .orTimeout(CONFIRM_WAIT.toMillis(), TimeUnit.MILLISECONDS)
+        .whenComplete((confirmation, error) -> {
+          if (error instanceof TimeoutException) ui.access(() -> queued(order.id()));
+        });
+  }
+
+  /** No decision yet: the order stays queued, and the customer may carry on. */
+  private void queued(String orderId) {
+    if (!sending || !orderId.equals(checkoutId)) return;
+    sending = false;
+    notify("Your order is queued and will be confirmed as soon as the store receives it.",
+        NotificationVariant.LUMO_CONTRAST);
+    update();
+  }
+
+  private void decided(String orderId, OrderConfirmation confirmation, Throwable error) {
+    awaited.remove(orderId);
+    boolean current = orderId.equals(checkoutId);
+    if (current) sending = false;
+    if (error != null) {
+      Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+      notify(cause instanceof OrderQueueFullException
+          ? "We are very busy right now. Please place your order again in a moment."
+          : "Your order could not be taken. Please try again.", NotificationVariant.LUMO_ERROR);
+    } else if (confirmation.isConfirmed()) {
+      if (current) {
+        lines.clear();
+        checkoutId = null;
+      }
+      notify(confirmation.reference() == null ? "Order confirmed."
+          : "Order " + confirmation.reference() + " confirmed.", NotificationVariant.LUMO_SUCCESS);
+    } else {
+      if (current) checkoutId = null;
+      notify("Your order was declined" + (confirmation.reason() == null ? "." : ": " + confirmation.reason() + "."),
+          NotificationVariant.LUMO_ERROR);
+    }
+    update();
+  }
+
+  private void update() {
+    int count = lines.values().stream().mapToInt(Order.Line::quantity).sum();
+    summary.setText(sending ? "Sending your order…" : count == 0 ? "Your cart is empty"
+        : count + (count == 1 ? " item" : " items") + " in your cart");
+    place.setEnabled(count > 0 && !sending);
+    clear.setEnabled(count > 0 && !sending);
+  }
+
+  private static void notify(String text, NotificationVariant variant) {
+    Notification notification = Notification.show(text, 5_000, Notification.Position.BOTTOM_END);
+    notification.addThemeVariants(variant);
+  }
+}
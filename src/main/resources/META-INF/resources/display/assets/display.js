@@ -0,0 +1,89 @@
+/*
+ * Display-only kiosk (/display). Rotates the pages of every .display-carousel, ticks the header
+ * clock, swaps in the new menu when the event stream announces a token other than the one on
+ * screen, and keeps "Last refreshed" in step with the stream's refreshed events. Plain script with no framework and no server session behind it.
+ */
+(() => {
+  'use strict';
+
+  const TRANSITION = 500;
+  const root = () => document.querySelector('.kiosk-root');
+
+  let token = root().dataset.token;
+  let rotations = [];
+  let pending;
+
+  /** Shows the first child of each carousel and advances it every data-interval ms. */
+  function startCarousels() {
+    rotations.forEach(clearInterval);
+    rotations = [];
+    document.querySelectorAll('.display-carousel').forEach((carousel) => {
+      const slides = Array.from(carousel.children);
+      if (slides.length === 0) return;
+      let current = 0;
+      slides.forEach((slide, i) => slide.setAttribute('aria-hidden', String(i !== 0)));
+      slides[0].setAttribute('carousel-state', 'active');
+      if (slides.length < 2) return;
+      rotations.push(setInterval(() => {
+        if (document.hidden) return;
+        const outgoing = slides[current];
+        current = (current + 1) % slides.length;
+        const incoming = slides[current];
+        outgoing.setAttribute('carousel-state', 'leaving');
+        outgoing.setAttribute('aria-hidden', 'true');
+        incoming.setAttribute('carousel-state', 'active');
+        incoming.setAttribute('aria-hidden', 'false');
+        setTimeout(() => {
+          if (outgoing.getAttribute('carousel-state') === 'leaving') outgoing.removeAttribute('carousel-state');
+        }, TRANSITION);
+      }, Number(carousel.dataset.interval) || 10000));
+    });
+  }
+
+  /** Ticks the header clock in the store time zone. */
+  function startClock() {
+    const format = new Intl.DateTimeFormat('en-US', {
+      timeZone: root().dataset.timeZone,
+      hour: 'numeric',
+      minute: '2-digit',
+      second: '2-digit',
+      hour12: true,
+    });
+    const tick = () => {
+      const clock = document.querySelector('[data-clock]');
+      if (clock) clock.textContent = format.format(Date.now());
+      setTimeout(tick, 1000 - (Date.now() % 1000));
+    };
+    tick();
+  }
+
+  /** Fetches the page after a random delay within data-jitter and replaces the menu with it. */
+  function reload() {
+    clearTimeout(pending);
+    pending = setTimeout(async () => {
+      try {
+        const response = await fetch(location.href);
+        if (!response.ok) return;
+        const page = new DOMParser().parseFromString(await response.text(), 'text/html');
+        const incoming = page.querySelector('.kiosk-root');
+        if (!incoming) return;
+        root().replaceWith(document.adoptNode(incoming));
+        token = incoming.dataset.token;
+        startCarousels();
+      } catch (e) {
+        // the next heartbeat tries again
+      }
+    }, Math.random() * (Number(root().dataset.jitter) || 0));
+  }
+
+  startCarousels();
+  startClock();
+  const events = new EventSource('display/events');
+  events.addEventListener('menu', (event) => {
+    if (event.data !== token) reload();
+  });
+  events.addEventListener('refreshed', (event) => {
+    const refreshed = document.querySelector('[data-refreshed]');
+    if (refreshed) refreshed.textContent = event.data;
+  });
+})();
@@ -0,0 +1,201 @@
+package com.sbsolutions;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.CookieManager;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Starts the packaged jar in its own JVM, twice, and compares the time from JVM start to the
+ * first kiosk render. First as a plain JVM start, then the way the container starts. Extra JVM
+ * flags for the second start come from {@code startup.jvm-args}; the {@code it} profile passes
+ * {@code -Dspring.aot.enabled=true} and packages the AOT jar. With {@code startup.cds} the jar is
+ * first extracted and put through the Dockerfile's training run, and the second start uses the
+ * resulting AppCDS archive, so its figure is the container's.
+ *
+ * <p>Both figures are printed. The container's must not exceed {@code startup.budget}. When
+ * that is not set, the budget is the plain JVM's figure from the same run, so the test does not
+ * depend on a number measured on other hardware.
+ *
+ * <p>order-data is pointed at a closed local port and there is no stored snapshot, so the first
+ * render is the skeleton {@code KioskView}'s constructor paints (header, clock and loading
+ * placeholders), logged before any menu data exists. The figure covers JVM, Spring and Vaadin
+ * startup up to the first route instance, not upstream latency or a full menu.
+ */
+class KioskStartupIT {
+
+  private static final Pattern PORT         = Pattern.compile("Tomcat started on port (\\d+)");
+  private static final Pattern FIRST_RENDER = Pattern.compile("First kiosk render (\\d+) ms after JVM start");
+  /** Upper bound for one start, training run or extraction; only there to end a hung run. */
+  private static final Duration TIMEOUT     = Duration.ofMinutes(2);
+
+  @TempDir Path dir;
+
+  private Process app;
+  /** Actuator port, separate from the kiosk port as in production ({@code management.server.port}). */
+  private int     managementPort;
+
+  @AfterEach
+  void stop() throws InterruptedException {
+    if (app != null) {
+      app.destroy();
+      if (!app.waitFor(10, TimeUnit.SECONDS)) app.destroyForcibly();
+      app = null;
+    }
+  }
+
+  @Test
+  void firstKioskRender_isNoSlowerThanThePlainJvm() throws Exception {
+    Path jar = Path.of(System.getProperty("startup.jar", "target/order-menu-1.0-SNAPSHOT.jar"));
+    assertThat(jar).as("packaged jar (build it with -Pit)").isRegularFile();
+    managementPort = freePort();
+
+    List<String> jvmArgs = new ArrayList<>();
+    String configured = System.getProperty("startup.jvm-args", "").trim();
+    if (!configured.isEmpty()) jvmArgs.addAll(Arrays.asList(configured.split("\\s+")));
+    Path launch = jar;
+    if (Boolean.parseBoolean(System.getProperty("startup.cds", "false"))) {
+      Path archive = dir.resolve("app.jsa");
+      launch = trainCds(jar, jvmArgs, archive);
+      jvmArgs.add("-XX:SharedArchiveFile=" + archive);
+    }
+
+    // plain start after the training run, so both measured starts find the jar in the page cache
+    long plainMillis = firstRenderMillis(List.of(), jar);
+    stop();
+    long measuredMillis = firstRenderMillis(jvmArgs, launch);
+
+    System.out.printf("First kiosk render: plain JVM %d ms, with %s %d ms%n",
+        plainMillis, jvmArgs, measuredMillis);
+    String configuredBudget = System.getProperty("startup.budget", "").trim();
+    Duration budget = configuredBudget.isEmpty()
+        ? Duration.ofMillis(plainMillis)
+        : Duration.parse(configuredBudget);
+    assertThat(Duration.ofMillis(measuredMillis))
+        .as("time to first kiosk render with %s (plain JVM: %d ms)", jvmArgs, plainMillis)
+        .isLessThanOrEqualTo(budget);
+  }
+
+  /** Starts {@code jar}, requests the kiosk and returns the logged time to its first render. */
+  private long firstRenderMillis(List<String> jvmArgs, Path jar) throws Exception {
+    app = new ProcessBuilder(command(jvmArgs, jar)).redirectErrorStream(true).start();
+    BlockingQueue<String> lines = pipeOutput(app);
+
+    long deadline = System.nanoTime() + TIMEOUT.toNanos();
+    int port;
+    do {
+      port = Integer.parseInt(await(lines, PORT, deadline));
+    } while (port == managementPort);
+
+    HttpClient http = HttpClient.newBuilder().cookieHandler(new CookieManager()).build();
+    assertThat(get(http, "http://localhost:" + port + "/")).isEqualTo(200);
+    // Flow builds the route UI either while serving index.html or on the client's init request
+    get(http, "http://localhost:" + port + "/?v-r=init&location=");
+    return Long.parseLong(await(lines, FIRST_RENDER, deadline));
+  }
+
+  /** {@code java <jvmArgs> -jar <jar> <app args>}, with order-data unreachable and state in the temp dir. */
+  private List<String> command(List<String> jvmArgs, Path jar) {
+    List<String> command = new ArrayList<>();
+    command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+    command.addAll(jvmArgs);
+    command.addAll(List.of("-jar", jar.toString(),
+        "--server.port=0",
+        "--management.server.port=" + managementPort,
+        "--ORDER_DATA_REST_URL=http://127.0.0.1:9",
+        "--menu.fetch.call-timeout=PT2S",
+        "--menu.snapshot.file=" + dir.resolve("menu-snapshot.bin"),
+        "--image-proxy.cache-dir=" + dir.resolve("images"),
+        "--orders.journal.file=" + dir.resolve("orders.journal")));
+    return command;
+  }
+
+  /**
+   * Extracts {@code jar} and runs it once up to context refresh, as the Dockerfile does, dumping
+   * the loaded classes into {@code archive}. Returns the extracted jar to launch with it.
+   */
+  private Path trainCds(Path jar, List<String> jvmArgs, Path archive) throws Exception {
+    Path extracted = dir.resolve("extracted");
+    String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    run(List.of(java, "-Djarmode=tools", "-jar", jar.toString(),
+        "extract", "--destination", extracted.toString()), TIMEOUT);
+    Path launch = extracted.resolve(jar.getFileName());
+
+    List<String> training = new ArrayList<>(jvmArgs);
+    training.add("-XX:ArchiveClassesAtExit=" + archive);
+    training.add("-Dspring.context.exit=onRefresh");
+    run(command(training, launch), TIMEOUT);
+    assertThat(archive).as("AppCDS archive from the training run").isRegularFile();
+    return launch;
+  }
+
+  private static void run(List<String> command, Duration timeout) throws Exception {
+    Process process = new ProcessBuilder(command).inheritIO().start();
+    if (!process.waitFor(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+      process.destroyForcibly();
+      throw new AssertionError("timed out: " + String.join(" ", command));
+    }
+    assertThat(process.exitValue()).as(String.join(" ", command)).isZero();
+  }
+
+  private static int freePort() throws IOException {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      return socket.getLocalPort();
+    }
+  }
+
+  private static int get(HttpClient http, String url) throws IOException, InterruptedException {
+    return http.send(HttpRequest.newBuilder(URI.create(url)).build(),
+        HttpResponse.BodyHandlers.discarding()).statusCode();
+  }
+
+  /** Copies the process output to this test's stdout and to the returned queue. */
+  private static BlockingQueue<String> pipeOutput(Process process) {
+    BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+    Thread.ofVirtual().start(() -> {
+      try (BufferedReader reader = new BufferedReader(
+          new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+        for (String line; (line = reader.readLine()) != null; ) {
+          System.out.println(line);
+          lines.add(line);
+        }
+      } catch (IOException ignored) {
+        // process was stopped
+      }
+    });
+    return lines;
+  }
+
+  /** Returns group 1 of the first output line matching {@code pattern}. */
+  private static String await(BlockingQueue<String> lines, Pattern pattern, long deadlineNanos)
+      throws InterruptedException {
+    while (true) {
+      String line = lines.poll(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+      if (line == null) throw new AssertionError("no output matching '" + pattern + "' before the deadline");
+      Matcher matcher = pattern.matcher(line);
+      if (matcher.find()) return matcher.group(1);
+    }
+  }
+}
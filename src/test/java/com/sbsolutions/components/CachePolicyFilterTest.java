@@ -0,0 +1,82 @@
+package com.sbsolutions.components;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class CachePolicyFilterTest {
+
+  @Mock FilterChain chain;
+
+  private final CachePolicyFilter filter = new CachePolicyFilter(
+      new String[] {"/VAADIN/build/"},
+      new String[] {"/images/", "/icons/", "/image-proxy/", "/display", "/display/assets/"},
+      Duration.ofDays(365));
+
+  private MockHttpServletResponse filter(String contextPath, String uri) throws Exception {
+    MockHttpServletRequest  request  = new MockHttpServletRequest("GET", uri);
+    request.setContextPath(contextPath);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(request, response, chain);
+    verify(chain).doFilter(request, response);
+    return response;
+  }
+
+  @Test
+  void doFilter_hashedBundle_isImmutable() throws Exception {
+    MockHttpServletResponse response = filter("", "/VAADIN/build/indexhtml-3f2a1b.js");
+
+    assertThat(response.getHeader("Cache-Control"))
+        .isEqualTo("public, max-age=31536000, immutable");
+    assertThat(response.getHeader("Pragma")).isNull();
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"/images/toppings/sprinkles.png", "/images/flavors/maple_swatch_100x20.png",
+      "/images/randys_donut_shop_half_optimized.webp", "/icons/icon.png",
+      "/image-proxy/card"})
+  void doFilter_images_areRevalidated(String uri) throws Exception {
+    MockHttpServletResponse response = filter("", uri);
+
+    assertThat(response.getHeader("Cache-Control")).isEqualTo(CachePolicyFilter.REVALIDATE);
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"/display", "/display/assets/display.js", "/display/assets/kiosk-view.css"})
+  void doFilter_displayPageAndAssets_areRevalidated(String uri) throws Exception {
+    MockHttpServletResponse response = filter("", uri);
+
+    assertThat(response.getHeader("Cache-Control")).isEqualTo(CachePolicyFilter.REVALIDATE);
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"/", "/menu", "/VAADIN/push", "/imagesX", "/display/events", "/displayXYZ",
+      "/display/"})
+  void doFilter_otherPaths_areNoStore(String uri) throws Exception {
+    MockHttpServletResponse response = filter("", uri);
+
+    assertThat(response.getHeader("Cache-Control"))
+        .isEqualTo("no-store, no-cache, must-revalidate, max-age=0");
+    assertThat(response.getHeader("Pragma")).isEqualTo("no-cache");
+    assertThat(response.getDateHeader("Expires")).isZero();
+  }
+
+  @Test
+  void doFilter_contextPathIsStripped() throws Exception {
+    MockHttpServletResponse response = filter("/kiosk", "/kiosk/images/toppings/oreo.png");
+
+    assertThat(response.getHeader("Cache-Control")).isEqualTo(CachePolicyFilter.REVALIDATE);
+  }
+}
@@ -0,0 +1,86 @@
+package com.sbsolutions.display;
+
+import com.sbsolutions.services.MenuSnapshot;
+import com.sbsolutions.services.MenuSnapshotService;
+import com.sbsolutions.services.PriceRow;
+import com.sbsolutions.services.TestMenuItems;
+import com.sbsolutions.views.KioskFragments;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DisplayPageTest {
+
+  @Mock MenuSnapshotService menuSnapshotService;
+
+  private DisplayPage page() {
+    return new DisplayPage(menuSnapshotService, new KioskFragments(),
+        ZoneId.of("America/Chicago"), Duration.ofSeconds(3));
+  }
+
+  private static MenuSnapshot snapshot(long version, int donuts) {
+    return new MenuSnapshot(version, Instant.EPOCH, TestMenuItems.items("Donut", donuts), List.of(), List.of(),
+        List.of(new PriceRow("Dozen", "box", "$14.99", 1)));
+  }
+
+  private static int count(String html, String needle) {
+    return html.split(needle, -1).length - 1;
+  }
+
+  @Test
+  void current_beforeFirstFetch_rendersLoadingSkeleton() {
+    when(menuSnapshotService.currentSnapshot()).thenReturn(Optional.empty());
+
+    DisplayPage.Rendered rendered = page().current();
+
+    assertThat(rendered.token()).startsWith("loading-");
+    assertThat(rendered.html())
+        .contains("Loading menu…")
+        .contains("kiosk-section kiosk-loading")
+        .doesNotContain("class=\"kiosk-card\"");
+  }
+
+  @Test
+  void current_splitsSectionsIntoPagesOfTheDefaultSize() {
+    when(menuSnapshotService.currentSnapshot()).thenReturn(Optional.of(snapshot(4, 30)));
+
+    String html = page().current().html();
+
+    assertThat(count(html, "class=\"kiosk-page\"")).isEqualTo(3);
+    assertThat(count(html, "class=\"kiosk-card\"")).isEqualTo(30);
+    assertThat(html).contains("$14.99").doesNotContain("Donut Holes");
+  }
+
+  @Test
+  void current_sameVersion_servesTheSameDocument() {
+    when(menuSnapshotService.currentSnapshot()).thenReturn(Optional.of(snapshot(4, 5)));
+    DisplayPage page = page();
+
+    DisplayPage.Rendered first = page.current();
+
+    assertThat(page.current()).isSameAs(first);
+    assertThat(page.token()).isEqualTo(first.token());
+  }
+
+  @Test
+  void current_newVersion_changesTheToken() {
+    when(menuSnapshotService.currentSnapshot()).thenReturn(Optional.of(snapshot(4, 5)));
+    DisplayPage page = page();
+    String before = page.current().token();
+
+    when(menuSnapshotService.currentSnapshot()).thenReturn(Optional.of(snapshot(5, 6)));
+
+    assertThat(page.current().token()).isNotEqualTo(before).startsWith("5-");
+  }
+}
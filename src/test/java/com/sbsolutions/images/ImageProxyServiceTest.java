@@ -0,0 +1,112 @@
+package com.sbsolutions.images;
+
+import com.sbsolutions.images.ImageVariantCache.CachedImage;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import javax.imageio.ImageIO;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ImageProxyServiceTest {
+
+  private static byte[] png(int width, int height) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+    return out.toByteArray();
+  }
+
+  /** {@code png} with the size in its IHDR header replaced (and the chunk CRC fixed). */
+  private static byte[] withHeaderSize(byte[] png, int width, int height) {
+    ByteBuffer buffer = ByteBuffer.wrap(png.clone());
+    buffer.putInt(16, width).putInt(20, height);
+    CRC32 crc = new CRC32();
+    crc.update(buffer.array(), 12, 17);
+    buffer.putInt(29, (int) crc.getValue());
+    return buffer.array();
+  }
+
+  @Test
+  void decode_refusesAnOversizedHeaderBeforeDecoding() throws IOException {
+    byte[] bomb = withHeaderSize(png(10, 10), 100_000, 100_000);
+
+    assertThatThrownBy(() -> ImageProxyService.decode(bomb, 400, 40_000_000, "bomb.png"))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("100000x100000");
+  }
+
+  @Test
+  void decode_subsamplesLargeImagesToAboutTwiceTheEdge() throws IOException {
+    BufferedImage image = ImageProxyService.decode(png(4000, 1000), 200, 40_000_000, "wide.png");
+
+    assertThat(image.getWidth()).isEqualTo(400);
+    assertThat(image.getHeight()).isEqualTo(100);
+  }
+
+  @Test
+  void decode_keepsSmallImagesAtFullSize() throws IOException {
+    BufferedImage image = ImageProxyService.decode(png(300, 120), 200, 40_000_000, "small.png");
+
+    assertThat(image.getWidth()).isEqualTo(300);
+    assertThat(image.getHeight()).isEqualTo(120);
+  }
+
+  @Test
+  void variant_pastRevalidateAfter_isServedAndRevalidatedWithIfModifiedSince(@TempDir Path dir) throws Exception {
+    byte[] original = png(600, 300);
+    List<String> conditions = new CopyOnWriteArrayList<>();
+    HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/donut.png", exchange -> {
+      String since = exchange.getRequestHeaders().getFirst("If-Modified-Since");
+      conditions.add(String.valueOf(since));
+      if (since != null) {
+        exchange.sendResponseHeaders(304, -1);
+      } else {
+        exchange.sendResponseHeaders(200, original.length);
+        exchange.getResponseBody().write(original);
+      }
+      exchange.close();
+    });
+    server.start();
+    ImageVariantCache cache = new ImageVariantCache(dir, DataSize.ofMegabytes(1));
+    cache.load();
+    ImageProxyService proxy = new ImageProxyService(cache, Duration.ofSeconds(5), DataSize.ofMegabytes(1),
+        40_000_000, Duration.ZERO);
+    try {
+      String src = "http://127.0.0.1:" + server.getAddress().getPort() + "/donut.png";
+      CachedImage first = proxy.variant(src, ImageVariant.CARD, false);
+      CachedImage stale = proxy.variant(src, ImageVariant.CARD, false);
+
+      assertThat(stale).isEqualTo(first);
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+      while (conditions.size() < 2 && System.nanoTime() < deadline) Thread.sleep(5);
+      assertThat(conditions).hasSize(2);
+      assertThat(conditions.get(0)).isEqualTo("null");
+      assertThat(conditions.get(1)).endsWith("GMT");
+    } finally {
+      proxy.shutdown();
+      server.stop(0);
+    }
+  }
+
+  @Test
+  void decode_unknownFormat_fails() {
+    assertThatThrownBy(() -> ImageProxyService.decode(new byte[] {1, 2, 3}, 200, 40_000_000, "x.bin"))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("Unsupported image format");
+  }
+}
@@ -0,0 +1,105 @@
+package com.sbsolutions.images;
+
+import com.sbsolutions.images.ImageVariantCache.CachedImage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImageVariantCacheTest {
+
+  @TempDir Path dir;
+
+  /** A key in the form {@link ImageProxyService} uses: 40 hex digits. */
+  private static String key(char c) {
+    return String.valueOf(c).repeat(40);
+  }
+
+  private ImageVariantCache cache(long maxBytes) throws IOException {
+    ImageVariantCache cache = new ImageVariantCache(dir, DataSize.ofBytes(maxBytes));
+    cache.load();
+    return cache;
+  }
+
+  @Test
+  void put_sameBytes_yieldsSameEtag() throws IOException {
+    ImageVariantCache cache = cache(1_000);
+
+    CachedImage first  = cache.put(key('a'), new byte[] {1, 2, 3}, "png");
+    CachedImage second = cache.put(key('a'), new byte[] {1, 2, 3}, "png");
+
+    assertThat(second.etag()).isEqualTo(first.etag());
+    assertThat(second.contentType()).isEqualTo("image/png");
+    assertThat(Files.readAllBytes(second.file())).containsExactly(1, 2, 3);
+    assertThat(cache.totalBytes()).isEqualTo(3);
+  }
+
+  @Test
+  void put_overLimit_evictsLeastRecentlyUsed() throws IOException {
+    ImageVariantCache cache = cache(250);
+    CachedImage a = cache.put(key('a'), new byte[100], "jpg");
+    cache.put(key('b'), new byte[100], "jpg");
+    cache.get(key('a'));
+
+    cache.put(key('c'), new byte[100], "jpg");
+
+    assertThat(cache.get(key('a'))).isNotNull();
+    assertThat(cache.get(key('b'))).isNull();
+    assertThat(cache.get(key('c'))).isNotNull();
+    assertThat(Files.exists(a.file())).isTrue();
+    assertThat(cache.totalBytes()).isEqualTo(200);
+  }
+
+  @Test
+  void load_rebuildsIndexFromDisk() throws IOException {
+    CachedImage stored = cache(1_000).put(key('a'), new byte[] {9, 9}, "jpg");
+    Files.writeString(dir.resolve(key('a') + "123.tmp"), "partial");
+
+    ImageVariantCache reloaded = cache(1_000);
+
+    assertThat(reloaded.get(key('a'))).isEqualTo(stored);
+    assertThat(Files.exists(dir.resolve(key('a') + "123.tmp"))).isFalse();
+  }
+
+  @Test
+  void load_leavesFilesItDidNotWriteAlone() throws IOException {
+    Files.writeString(dir.resolve("notes.txt"), "keep");
+    Files.writeString(dir.resolve("a.b.png"), "keep");
+
+    ImageVariantCache cache = cache(1_000);
+
+    assertThat(Files.exists(dir.resolve("notes.txt"))).isTrue();
+    assertThat(Files.exists(dir.resolve("a.b.png"))).isTrue();
+    assertThat(cache.totalBytes()).isZero();
+  }
+
+  @Test
+  void touch_restartsTheRevalidationPeriodAcrossRestarts() throws IOException {
+    ImageVariantCache cache = cache(1_000);
+    CachedImage stored = cache.put(key('a'), new byte[] {1}, "png");
+    Files.setLastModifiedTime(stored.file(), FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+
+    CachedImage touched = cache.touch(key('a'));
+
+    assertThat(touched.etag()).isEqualTo(stored.etag());
+    assertThat(touched.storedAt()).isAfter(Instant.now().minus(Duration.ofMinutes(1)));
+    assertThat(cache(1_000).get(key('a')).storedAt()).isEqualTo(touched.storedAt());
+    assertThat(cache.touch(key('b'))).isNull();
+  }
+
+  @Test
+  void proxyUrl_onlyRewritesRemoteImages() {
+    assertThat(ImageVariant.CARD.proxyUrl("https://cdn.example.com/a b.png"))
+        .isEqualTo("image-proxy/card?src=https%3A%2F%2Fcdn.example.com%2Fa+b.png");
+    assertThat(ImageVariant.SPECIAL.proxyUrl("images/local.png")).isEqualTo("images/local.png");
+    assertThat(ImageVariant.CARD.proxyUrl(null)).isNull();
+  }
+}
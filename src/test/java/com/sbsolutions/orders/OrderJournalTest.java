@@ -0,0 +1,111 @@
+package com.sbsolutions.orders;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderJournalTest {
+
+  @TempDir Path dir;
+
+  private static Order order(String id) {
+    return new Order(id, Instant.ofEpochMilli(1_760_000_000_123L),
+        List.of(new Order.Line("Glazed", "Glazed", 2), new Order.Line("Crème", "Crème brûlée", 1)));
+  }
+
+  private OrderJournal journal(Path file, long compactBytes) throws IOException {
+    OrderJournal journal = new OrderJournal(file, compactBytes);
+    journal.open();
+    return journal;
+  }
+
+  @Test
+  void reopen_returnsUndecidedOrdersInOrder() throws IOException {
+    Path file = dir.resolve("nested/orders.journal");
+    OrderJournal journal = journal(file, 1 << 20);
+    journal.placed(order("a"));
+    journal.placed(order("b"));
+    journal.placed(order("c"));
+    journal.decided(List.of("b"));
+    journal.close();
+
+    OrderJournal reopened = new OrderJournal(file, 1 << 20);
+    assertThat(reopened.open()).containsExactly(order("a"), order("c"));
+    assertThat(reopened.size()).isEqualTo(2);
+  }
+
+  @Test
+  void reopen_ignoresATornLastRecord() throws IOException {
+    Path file = dir.resolve("orders.journal");
+    OrderJournal journal = journal(file, 1 << 20);
+    journal.placed(order("a"));
+    journal.close();
+    byte[] torn = OrderJournal.record(OrderJournal.PLACED, OrderJournal.encode(order("b")));
+    Files.write(file, Arrays.copyOf(torn, torn.length - 3), StandardOpenOption.APPEND);
+
+    assertThat(new OrderJournal(file, 1 << 20).open()).containsExactly(order("a"));
+  }
+
+  @Test
+  void reopen_stopsAtACorruptRecord() throws IOException {
+    Path file = dir.resolve("orders.journal");
+    OrderJournal journal = journal(file, 1 << 20);
+    journal.placed(order("a"));
+    journal.placed(order("b"));
+    journal.close();
+    byte[] bytes = Files.readAllBytes(file);
+    bytes[bytes.length - 10] ^= 0x55;
+    Files.write(file, bytes);
+
+    assertThat(new OrderJournal(file, 1 << 20).open()).containsExactly(order("a"));
+  }
+
+  @Test
+  void decided_rewritesALargeJournalWithOnlyTheUndecidedOrders() throws IOException {
+    Path file = dir.resolve("orders.journal");
+    OrderJournal journal = journal(file, 200);
+    for (int i = 0; i < 5; i++) journal.placed(order("o" + i));
+    assertThat(Files.size(file)).isGreaterThan(200);
+
+    journal.decided(List.of("o0", "o1", "o2", "o3"));
+
+    assertThat(Files.size(file)).isLessThan(200);
+    journal.placed(order("o5"));
+    journal.close();
+    assertThat(new OrderJournal(file, 200).open()).containsExactly(order("o4"), order("o5"));
+  }
+
+  @Test
+  void decided_truncatesALargeJournalOnceEmpty() throws IOException {
+    Path file = dir.resolve("orders.journal");
+    OrderJournal journal = journal(file, 200);
+    for (int i = 0; i < 5; i++) journal.placed(order("o" + i));
+
+    journal.decided(List.of("o0", "o1", "o2", "o3", "o4"));
+
+    assertThat(Files.size(file)).isEqualTo(Integer.BYTES + Short.BYTES);
+    journal.close();
+    assertThat(new OrderJournal(file, 200).open()).isEmpty();
+  }
+
+  @Test
+  void open_movesAFileOfAnotherFormatAside() throws IOException {
+    Path file = dir.resolve("orders.journal");
+    Files.writeString(file, "not a journal");
+
+    assertThat(new OrderJournal(file, 1 << 20).open()).isEmpty();
+    try (var files = Files.list(dir)) {
+      assertThat(files.map(path -> path.getFileName().toString()))
+          .anyMatch(name -> name.startsWith("orders.journal.") && name.endsWith(".unknown"));
+    }
+  }
+}
@@ -0,0 +1,266 @@
+package com.sbsolutions.orders;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Drives {@link OrderPipeline} against a local stub of the order-data batch endpoint that can
+ * fail, stall or reject orders per test.
+ */
+class OrderPipelineTest {
+
+  private static final Duration WAIT = Duration.ofSeconds(5);
+
+  @TempDir Path dir;
+
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+  private final Set<String> refused = ConcurrentHashMap.newKeySet();
+  private final Set<String> omitted = ConcurrentHashMap.newKeySet();
+  private final AtomicInteger throwsLeft = new AtomicInteger();
+  private final AtomicInteger failuresLeft = new AtomicInteger();
+  private volatile int failureStatus = 503;
+  private volatile CountDownLatch gate = new CountDownLatch(0);
+  private HttpServer server;
+  private final List<OrderPipeline> pipelines = new ArrayList<>();
+
+  @BeforeEach
+  void startStub() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    server.createContext("/orders/batch", exchange -> {
+      JsonNode request = mapper.readTree(exchange.getRequestBody());
+      List<String> ids = new ArrayList<>();
+      request.path("orders").forEach(order -> ids.add(order.path("id").asText()));
+      batches.add(ids);
+      try {
+        gate.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      int status = failuresLeft.getAndUpdate(n -> Math.max(0, n - 1)) > 0 ? failureStatus : 200;
+      StringBuilder body = new StringBuilder("{\"results\":[");
+      for (String id : ids) {
+        if (omitted.contains(id)) continue;
+        if (body.charAt(body.length() - 1) == '}') body.append(',');
+        body.append(refused.contains(id)
+            ? "{\"id\":\"" + id + "\",\"status\":\"rejected\",\"reason\":\"sold out\"}"
+            : "{\"id\":\"" + id + "\",\"status\":\"confirmed\",\"reference\":\"R-" + id + "\"}");
+      }
+      byte[] bytes = body.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+      exchange.sendResponseHeaders(status, bytes.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(bytes);
+      }
+    });
+    server.start();
+  }
+
+  @AfterEach
+  void stop() throws InterruptedException {
+    gate.countDown();
+    for (OrderPipeline pipeline : pipelines) pipeline.stop();
+    server.stop(0);
+  }
+
+  private OrderPipeline pipeline(int capacity) throws IOException {
+    OrderApi api = new OrderApi("http://127.0.0.1:" + server.getAddress().getPort() + "/orders/batch",
+        Duration.ofSeconds(2), mapper) {
+      @Override
+      public Map<String, OrderConfirmation> write(List<Order> orders) throws IOException, InterruptedException {
+        if (throwsLeft.getAndUpdate(n -> Math.max(0, n - 1)) > 0) throw new IllegalStateException("boom");
+        return super.write(orders);
+      }
+    };
+    OrderPipeline pipeline = new OrderPipeline(new OrderJournal(dir.resolve("orders.journal"), 1024), api,
+        new SimpleMeterRegistry(), capacity, 10, Duration.ofMillis(10), Duration.ofMillis(40), 2);
+    pipeline.start();
+    pipelines.add(pipeline);
+    return pipeline;
+  }
+
+  private static Order order(String id) {
+    return new Order(id, Instant.parse("2026-10-17T12:00:00Z"), List.of(new Order.Line("Glazed", "Glazed", 2)));
+  }
+
+  private static OrderConfirmation await(CompletableFuture<OrderConfirmation> future) throws Exception {
+    return future.get(WAIT.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  @Test
+  void submit_confirmsAsynchronously() throws Exception {
+    OrderPipeline pipeline = pipeline(10);
+
+    OrderConfirmation confirmation = await(pipeline.submit(order("a")));
+
+    assertThat(confirmation).isEqualTo(OrderConfirmation.confirmed("a", "R-a"));
+    assertThat(pipeline.size()).isZero();
+  }
+
+  @Test
+  void submit_doesNotWaitForOrderData() throws Exception {
+    gate = new CountDownLatch(1);
+    OrderPipeline pipeline = pipeline(10);
+
+    CompletableFuture<OrderConfirmation> future = pipeline.submit(order("a"));
+
+    assertThat(future).isNotDone();
+    gate.countDown();
+    assertThat(await(future).isConfirmed()).isTrue();
+  }
+
+  @Test
+  void submit_rejectedOrder_completesWithTheReason() throws Exception {
+    refused.add("b");
+    OrderPipeline pipeline = pipeline(10);
+
+    assertThat(await(pipeline.submit(order("b")))).isEqualTo(OrderConfirmation.rejected("b", "sold out"));
+  }
+
+  @Test
+  void ordersQueuedDuringARequest_goOutAsOneBatch() throws Exception {
+    gate = new CountDownLatch(1);
+    OrderPipeline pipeline = pipeline(10);
+    CompletableFuture<OrderConfirmation> first = pipeline.submit(order("a"));
+    while (batches.isEmpty()) Thread.sleep(5);
+
+    List<CompletableFuture<OrderConfirmation>> rest = new ArrayList<>();
+    for (String id : List.of("b", "c", "d")) rest.add(pipeline.submit(order(id)));
+    gate.countDown();
+
+    await(first);
+    for (CompletableFuture<OrderConfirmation> future : rest) await(future);
+    assertThat(batches).containsExactly(List.of("a"), List.of("b", "c", "d"));
+  }
+
+  @Test
+  void failedBatches_areRetriedWithBackoff() throws Exception {
+    failuresLeft.set(3);
+    OrderPipeline pipeline = pipeline(10);
+
+    assertThat(await(pipeline.submit(order("a"))).isConfirmed()).isTrue();
+    assertThat(batches).hasSize(4);
+  }
+
+  @Test
+  void endpointNotFound_keepsTheOrdersPending() throws Exception {
+    failureStatus = 404;
+    failuresLeft.set(Integer.MAX_VALUE);
+    OrderPipeline pipeline = pipeline(10);
+    CompletableFuture<OrderConfirmation> future = pipeline.submit(order("a"));
+    while (batches.size() < 3) Thread.sleep(5);
+
+    assertThat(future).isNotDone();
+    assertThat(pipeline.size()).isEqualTo(1);
+
+    failuresLeft.set(0);
+    assertThat(await(future).isConfirmed()).isTrue();
+  }
+
+  @Test
+  void unprocessableBatch_rejectsItsOrders() throws Exception {
+    failureStatus = 422;
+    failuresLeft.set(1);
+    OrderPipeline pipeline = pipeline(10);
+
+    assertThat(await(pipeline.submit(order("a")))).isEqualTo(OrderConfirmation.rejected("a", "HTTP 422"));
+  }
+
+  @Test
+  void unexpectedErrors_doNotStopTheWriter() throws Exception {
+    throwsLeft.set(3);
+    OrderPipeline pipeline = pipeline(10);
+
+    assertThat(await(pipeline.submit(order("a"))).isConfirmed()).isTrue();
+    assertThat(await(pipeline.submit(order("b"))).isConfirmed()).isTrue();
+  }
+
+  @Test
+  void orderNeverDecided_doesNotHoldUpLaterOrders() throws Exception {
+    omitted.add("x");
+    OrderPipeline pipeline = pipeline(10);
+    CompletableFuture<OrderConfirmation> stuck = pipeline.submit(order("x"));
+    while (batches.size() < 3) Thread.sleep(5);
+
+    assertThat(await(pipeline.submit(order("y")))).isEqualTo(OrderConfirmation.confirmed("y", "R-y"));
+    assertThat(stuck).isNotDone();
+    assertThat(pipeline.size()).isEqualTo(1);
+  }
+
+  @Test
+  void submit_sameId_isSentOnce() throws Exception {
+    gate = new CountDownLatch(1);
+    OrderPipeline pipeline = pipeline(10);
+
+    CompletableFuture<OrderConfirmation> first = pipeline.submit(order("a"));
+    CompletableFuture<OrderConfirmation> second = pipeline.submit(order("a"));
+    gate.countDown();
+
+    assertThat(await(second)).isEqualTo(await(first));
+    assertThat(await(pipeline.submit(order("a")))).isEqualTo(await(first));
+    assertThat(batches).containsExactly(List.of("a"));
+  }
+
+  @Test
+  void submit_queueFull_failsWithoutJournaling() throws Exception {
+    gate = new CountDownLatch(1);
+    OrderPipeline pipeline = pipeline(2);
+    pipeline.submit(order("a"));
+    pipeline.submit(order("b"));
+
+    assertThatThrownBy(() -> pipeline.submit(order("c")).join())
+        .hasCauseInstanceOf(OrderQueueFullException.class);
+    assertThat(pipeline.size()).isEqualTo(2);
+
+    pipeline.stop();
+    assertThat(new OrderJournal(dir.resolve("orders.journal"), 1024).open())
+        .extracting(Order::id).containsExactly("a", "b");
+  }
+
+  @Test
+  void undecidedOrders_areSentAgainAfterARestart() throws Exception {
+    failuresLeft.set(Integer.MAX_VALUE);
+    OrderPipeline first = pipeline(10);
+    first.submit(order("a"));
+    first.submit(order("b"));
+    first.stop();
+    pipelines.remove(first);
+
+    failuresLeft.set(0);
+    batches.clear();
+    OrderPipeline second = pipeline(10);
+    long deadline = System.nanoTime() + WAIT.toNanos();
+    while (second.size() > 0 && System.nanoTime() < deadline) Thread.sleep(5);
+
+    assertThat(second.size()).isZero();
+    assertThat(batches).containsExactly(List.of("a", "b"));
+  }
+}
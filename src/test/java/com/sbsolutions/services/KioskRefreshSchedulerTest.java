@@ -0,0 +1,95 @@
+package com.sbsolutions.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KioskRefreshSchedulerTest {
+
+  private final MeterRegistry registry = new SimpleMeterRegistry();
+  private final ExecutorService kiosks = Executors.newCachedThreadPool();
+  private KioskRefreshScheduler scheduler;
+
+  @AfterEach
+  void shutdown() {
+    if (scheduler != null) scheduler.shutdown();
+    kiosks.shutdownNow();
+  }
+
+  @Test
+  void offer_whilePending_deliversOnlyTheLatestValue() throws InterruptedException {
+    scheduler = new KioskRefreshScheduler(registry, Duration.ofMillis(200), 4, Duration.ofSeconds(1));
+    List<Integer> delivered = new CopyOnWriteArrayList<>();
+    CountDownLatch done = new CountDownLatch(1);
+    KioskRefreshScheduler.Slot<Integer> slot = scheduler.slot(value -> {
+      delivered.add(value);
+      done.countDown();
+      return CompletableFuture.completedFuture(null);
+    }, Duration.ofMillis(200));
+
+    slot.offer(1);
+    slot.offer(2);
+    slot.offer(3);
+
+    assertThat(done.await(2, TimeUnit.SECONDS)).isTrue();
+    Thread.sleep(300);
+    assertThat(delivered).containsExactly(3);
+    assertThat(registry.get("kiosk.refresh.coalesced").counter().count()).isEqualTo(2);
+    assertThat(registry.get("kiosk.refresh.queue").gauge().value()).isZero();
+  }
+
+  @Test
+  void deliveries_runAtMostMaxConcurrentAtOnce() throws InterruptedException {
+    scheduler = new KioskRefreshScheduler(registry, Duration.ZERO, 2, Duration.ofSeconds(5));
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger peak = new AtomicInteger();
+    CountDownLatch done = new CountDownLatch(6);
+    for (int i = 0; i < 6; i++) {
+      scheduler.<String>slot(value -> CompletableFuture.runAsync(() -> {
+        peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+        try {
+          Thread.sleep(100);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        running.decrementAndGet();
+        done.countDown();
+      }, kiosks)).offer("menu");
+    }
+
+    assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(peak.get()).isEqualTo(2);
+    assertThat(registry.get("kiosk.refresh.lateness").timer().count()).isEqualTo(6);
+  }
+
+  @Test
+  void cancel_dropsPendingDelivery() throws InterruptedException {
+    scheduler = new KioskRefreshScheduler(registry, Duration.ofMillis(100), 4, Duration.ofSeconds(1));
+    AtomicInteger delivered = new AtomicInteger();
+    KioskRefreshScheduler.Slot<String> slot = scheduler.slot(value -> {
+      delivered.incrementAndGet();
+      return CompletableFuture.completedFuture(null);
+    }, Duration.ofMillis(100));
+
+    slot.offer("menu");
+    slot.cancel();
+    slot.offer("menu");
+    Thread.sleep(300);
+
+    assertThat(delivered.get()).isZero();
+    assertThat(scheduler.queued()).isZero();
+  }
+}
@@ -0,0 +1,79 @@
+package com.sbsolutions.services;
+
+import com.vaadin.flow.shared.Registration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MenuBroadcasterTest {
+
+  private final KioskRefreshScheduler scheduler =
+      new KioskRefreshScheduler(new SimpleMeterRegistry(), Duration.ofHours(1), 1, Duration.ofSeconds(1));
+  private final MenuBroadcaster broadcaster = new MenuBroadcaster(scheduler);
+
+  @AfterEach
+  void shutdown() {
+    scheduler.shutdown();
+  }
+
+  private static MenuSnapshot snapshot(long version) {
+    return new MenuSnapshot(version, Instant.now(), List.of(), List.of(), List.of(), List.of());
+  }
+
+  @Test
+  void subscribers_areCalledAtOnceAndNotCountedAsKiosks() {
+    List<Long> seen = new CopyOnWriteArrayList<>();
+    broadcaster.register(snapshot -> CompletableFuture.completedFuture(null));
+    Registration subscription = broadcaster.subscribe(snapshot -> seen.add(snapshot.version()));
+
+    broadcaster.broadcast(snapshot(1));
+
+    assertThat(seen).containsExactly(1L);
+    assertThat(broadcaster.size()).isEqualTo(1);
+    assertThat(scheduler.queued()).isEqualTo(1);
+
+    subscription.remove();
+    broadcaster.broadcast(snapshot(2));
+    assertThat(seen).containsExactly(1L);
+  }
+
+  @Test
+  void heartbeat_reachesOnlyHeartbeatListeners() {
+    List<Long> subscribed = new CopyOnWriteArrayList<>();
+    List<Long> heartbeats = new CopyOnWriteArrayList<>();
+    broadcaster.register(snapshot -> CompletableFuture.completedFuture(null));
+    broadcaster.subscribe(snapshot -> subscribed.add(snapshot.version()));
+    Registration listener = broadcaster.onHeartbeat(snapshot -> heartbeats.add(snapshot.version()));
+
+    broadcaster.heartbeat(snapshot(1));
+
+    assertThat(heartbeats).containsExactly(1L);
+    assertThat(subscribed).isEmpty();
+    assertThat(scheduler.queued()).isZero();
+
+    listener.remove();
+    broadcaster.heartbeat(snapshot(1));
+    assertThat(heartbeats).containsExactly(1L);
+  }
+
+  @Test
+  void failingSubscriber_doesNotStopTheBroadcast() {
+    List<Long> seen = new CopyOnWriteArrayList<>();
+    broadcaster.subscribe(snapshot -> {
+      throw new IllegalStateException("boom");
+    });
+    broadcaster.subscribe(snapshot -> seen.add(snapshot.version()));
+
+    broadcaster.broadcast(snapshot(1));
+
+    assertThat(seen).containsExactly(1L);
+  }
+}
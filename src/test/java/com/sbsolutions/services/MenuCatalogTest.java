@@ -0,0 +1,88 @@
+package com.sbsolutions.services;
+
+import com.sbsolutions.services.MenuCatalog.Category;
+import com.sbsolutions.services.MenuCatalog.Entry;
+import com.sbsolutions.services.MenuCatalog.Sort;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.sbsolutions.services.TestMenuItems.item;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MenuCatalogTest {
+
+  @Mock MenuSnapshotService menuSnapshotService;
+
+  private static MenuSnapshot snapshot(long version) {
+    return new MenuSnapshot(version, Instant.EPOCH,
+        List.of(item("Maple", 1), item("glazed", 2), item("Sprinkle", 3)),
+        List.of(item("Cake Holes", 1)),
+        List.of(item("Cinnamon Roll", 1), item("Apple Fritter", 2)),
+        List.of());
+  }
+
+  private static List<String> names(List<Entry> entries) {
+    return entries.stream().map(entry -> entry.item().description()).toList();
+  }
+
+  private MenuCatalog catalog(long version) {
+    when(menuSnapshotService.currentSnapshot()).thenReturn(Optional.of(snapshot(version)));
+    return new MenuCatalog(menuSnapshotService);
+  }
+
+  @Test
+  void fetch_menuOrder_pagesThroughAllCategories() {
+    MenuCatalog catalog = catalog(1);
+
+    assertThat(names(catalog.fetch(Set.of(), Sort.MENU_ORDER, false, 0, 4)))
+        .containsExactly("Maple", "glazed", "Sprinkle", "Cake Holes");
+    assertThat(names(catalog.fetch(Set.of(), Sort.MENU_ORDER, false, 4, 4)))
+        .containsExactly("Cinnamon Roll", "Apple Fritter");
+    assertThat(catalog.fetch(Set.of(), Sort.MENU_ORDER, false, 10, 4)).isEmpty();
+    assertThat(catalog.count(Set.of())).isEqualTo(6);
+  }
+
+  @Test
+  void fetch_byName_sortsCaseInsensitivelyInBothDirections() {
+    MenuCatalog catalog = catalog(1);
+
+    assertThat(names(catalog.fetch(Set.of(), Sort.NAME, false, 0, 3)))
+        .containsExactly("Apple Fritter", "Cake Holes", "Cinnamon Roll");
+    assertThat(names(catalog.fetch(Set.of(), Sort.NAME, true, 0, 2)))
+        .containsExactly("Sprinkle", "Maple");
+  }
+
+  @Test
+  void fetch_filteredByCategory_pagesWithinTheCategory() {
+    MenuCatalog catalog = catalog(1);
+    Set<Category> filter = Set.of(Category.DONUTS, Category.DONUT_HOLES);
+
+    assertThat(names(catalog.fetch(filter, Sort.NAME, false, 1, 2)))
+        .containsExactly("glazed", "Maple");
+    assertThat(catalog.count(filter)).isEqualTo(4);
+    assertThat(catalog.count(Set.of(Category.ROLLS))).isEqualTo(2);
+  }
+
+  @Test
+  void fetch_newVersion_rebuildsTheCatalog() {
+    MenuCatalog catalog = catalog(1);
+    catalog.fetch(Set.of(), Sort.NAME, false, 0, 100);
+    assertThat(catalog.version()).isEqualTo(1);
+
+    MenuSnapshot next = new MenuSnapshot(2, Instant.EPOCH, List.of(item("Bear Claw", 1)),
+        List.of(), List.of(), List.of());
+    when(menuSnapshotService.currentSnapshot()).thenReturn(Optional.of(next));
+
+    assertThat(names(catalog.fetch(Set.of(), Sort.NAME, false, 0, 100))).containsExactly("Bear Claw");
+    assertThat(catalog.version()).isEqualTo(2);
+  }
+}
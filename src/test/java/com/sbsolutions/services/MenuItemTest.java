@@ -0,0 +1,68 @@
+package com.sbsolutions.services;
+
+import com.sbsolutions.order.models.Donut;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MenuItemTest {
+
+  private static final ZoneId ZONE = ZoneId.of("America/Chicago");
+
+  @Test
+  void of_precomputesDisplayFields() {
+    Donut d = new Donut();
+    d.setDescription("Apple Fritter");
+    d.setAvailableDays("Mon,Wed");
+    d.setImageSmall("https://example.com/fritter.webp");
+    d.setPrice(new BigDecimal("2.5"));
+    d.setUnit("each");
+
+    MenuItem item = MenuItem.of(d, ZONE);
+
+    assertThat(item.key()).isEqualTo("name:Apple Fritter");   // no upstream id
+    assertThat(item.daysText()).isEqualTo("Mon · Wed");
+    assertThat(item.imageUrl()).isEqualTo("https://example.com/fritter.png");
+    assertThat(item.cardImageUrl())
+        .isEqualTo("image-proxy/card?src=https%3A%2F%2Fexample.com%2Ffritter.png");
+    assertThat(item.specialImageUrl()).startsWith("image-proxy/special?src=");
+    assertThat(item.priceText()).isEqualTo("$2.50 / each");
+    assertThat(item.sortKey()).isEqualTo(Integer.MAX_VALUE);
+  }
+
+  @Test
+  void of_emptyDonut_hasNoOptionalFields() {
+    MenuItem item = MenuItem.of(new Donut(), ZONE);
+
+    assertThat(item.description()).isEmpty();
+    assertThat(item.daysText()).isNull();
+    assertThat(item.imageUrl()).isNull();
+    assertThat(item.cardImageUrl()).isNull();
+    assertThat(item.priceText()).isNull();
+    assertThat(item.specialPriceDate()).isNull();
+  }
+
+  @Test
+  void isFeaturedOn_matchesAvailableDay() {
+    Donut d = new Donut();
+    d.setAvailableDays("Mon-Wed");
+    MenuItem item = MenuItem.of(d, ZONE);
+
+    assertThat(item.isFeaturedOn(LocalDate.of(2026, 10, 13))).isTrue();   // Tuesday
+    assertThat(item.isFeaturedOn(LocalDate.of(2026, 10, 16))).isFalse();  // Friday
+  }
+
+  @Test
+  void equalInputs_compileToEqualItems() {
+    Donut a = new Donut();
+    a.setDescription("Glazed");
+    Donut b = new Donut();
+    b.setDescription("Glazed");
+
+    assertThat(MenuItem.of(a, ZONE)).isEqualTo(MenuItem.of(b, ZONE));
+  }
+}
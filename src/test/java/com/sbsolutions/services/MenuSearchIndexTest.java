@@ -0,0 +1,116 @@
+package com.sbsolutions.services;
+
+import com.sbsolutions.services.MenuCatalog.Category;
+import com.sbsolutions.services.MenuCatalog.Entry;
+import com.sbsolutions.services.MenuSearchIndex.Extra;
+import com.sbsolutions.services.MenuSearchIndex.Hit;
+import com.sbsolutions.services.MenuSearchIndex.Index;
+import com.sbsolutions.services.MenuSearchIndex.Kind;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MenuSearchIndexTest {
+
+  private static Entry entry(Category category, String description) {
+    return new Entry(category, TestMenuItems.item(description));
+  }
+
+  private static final Index INDEX = Index.build(1,
+      List.of(
+          entry(Category.DONUTS, "Chocolate Glazed"),
+          entry(Category.DONUTS, "Glazed"),
+          entry(Category.DONUTS, "Blueberry Cake"),
+          entry(Category.DONUTS, "Crème Brûlée"),
+          entry(Category.DONUTS, "Chocolate Sprinkle"),
+          entry(Category.DONUT_HOLES, "Glazed Holes"),
+          entry(Category.ROLLS, "Cinnamon Roll")),
+      List.of(
+          MenuSearchIndex.swatch(Kind.FLAVOR, "images/flavors/", "chocolate_swatch_100x20.png"),
+          MenuSearchIndex.swatch(Kind.TOPPING, "images/toppings/", "sprinkles.png")));
+
+  private static List<String> names(List<Hit> hits) {
+    return hits.stream().map(Hit::name).toList();
+  }
+
+  @Test
+  void search_prefix_findsItemsAndFlavors() {
+    List<Hit> hits = INDEX.search("choc", 10);
+
+    assertThat(names(hits)).containsExactlyInAnyOrder("Chocolate", "Chocolate Glazed", "Chocolate Sprinkle");
+    assertThat(hits).filteredOn(hit -> hit.kind() == Kind.FLAVOR).singleElement()
+        .satisfies(hit -> assertThat(hit.imageUrl()).isEqualTo("images/flavors/chocolate_swatch_100x20.png"));
+  }
+
+  @Test
+  void search_exactWordOutranksPrefix_andShorterNamesComeFirst() {
+    assertThat(names(INDEX.search("glazed", 10)))
+        .containsExactly("Glazed", "Glazed Holes", "Chocolate Glazed");
+  }
+
+  @Test
+  void search_typos_matchWithinTheEditBudget() {
+    assertThat(names(INDEX.search("glazd", 10))).contains("Glazed");
+    assertThat(names(INDEX.search("bluebery", 10))).containsExactly("Blueberry Cake");
+    assertThat(names(INDEX.search("sprinkels", 10))).contains("Sprinkles", "Chocolate Sprinkle");
+    assertThat(INDEX.search("chx", 10)).isEmpty();
+  }
+
+  @Test
+  void search_everyWordMustMatch() {
+    assertThat(names(INDEX.search("chco glaz", 10))).containsExactly("Chocolate Glazed");
+    assertThat(INDEX.search("glazed roll", 10)).isEmpty();
+  }
+
+  @Test
+  void search_ignoresCaseAndAccents() {
+    assertThat(names(INDEX.search("CREME brulee", 10))).containsExactly("Crème Brûlée");
+  }
+
+  @Test
+  void search_itemHits_carryTheirCatalogEntry() {
+    Hit hit = INDEX.search("cinnamon", 10).getFirst();
+
+    assertThat(hit.kind()).isEqualTo(Kind.ITEM);
+    assertThat(hit.entry().category()).isEqualTo(Category.ROLLS);
+  }
+
+  @Test
+  void build_itemInSeveralCategories_isOneHit() {
+    Index index = Index.build(1,
+        List.of(entry(Category.DONUTS, "Glazed Mix"), entry(Category.DONUT_HOLES, "Glazed Mix"),
+            entry(Category.DONUTS, "Glazed")),
+        List.of());
+
+    List<Hit> hits = index.search("glazed mix", 10);
+
+    assertThat(names(hits)).containsExactly("Glazed Mix");
+    assertThat(hits.getFirst().entry().category()).isEqualTo(Category.DONUTS);
+  }
+
+  @Test
+  void search_blankQueryOrNoLimit_findsNothing() {
+    assertThat(INDEX.search("  ", 10)).isEmpty();
+    assertThat(INDEX.search(null, 10)).isEmpty();
+    assertThat(INDEX.search("glazed", 0)).isEmpty();
+    assertThat(INDEX.search("glazed", 1)).hasSize(1);
+  }
+
+  @Test
+  void swatch_namesComeFromTheFileName() {
+    assertThat(MenuSearchIndex.swatch(Kind.FLAVOR, "images/flavors/", "peanut_butter_swatch_100x20.png"))
+        .isEqualTo(new Extra(Kind.FLAVOR, "Peanut Butter", "images/flavors/peanut_butter_swatch_100x20.png"));
+    assertThat(MenuSearchIndex.swatch(Kind.TOPPING, "images/toppings/", "german_chocolate.png").name())
+        .isEqualTo("German Chocolate");
+  }
+
+  @Test
+  void prefixDistance_countsEditsAgainstThePrefix() {
+    assertThat(MenuSearchIndex.prefixDistance("choc", "chocolate", 1)).isZero();
+    assertThat(MenuSearchIndex.prefixDistance("chco", "chocolate", 1)).isEqualTo(1);
+    assertThat(MenuSearchIndex.prefixDistance("glazd", "glazed", 1)).isEqualTo(1);
+    assertThat(MenuSearchIndex.prefixDistance("xyzzy", "glazed", 2)).isEqualTo(3);
+  }
+}
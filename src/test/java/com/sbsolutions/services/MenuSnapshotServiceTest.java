@@ -0,0 +1,307 @@
+package com.sbsolutions.services;
+
+import com.sbsolutions.api.DonutsClient;
+import com.sbsolutions.api.PricingSheetClient;
+import com.sbsolutions.api.RollClient;
+import com.sbsolutions.order.models.Donut;
+import com.sbsolutions.order.models.ItemType;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MenuSnapshotServiceTest {
+
+  @Mock DonutsClient       donutsClient;
+  @Mock RollClient         rollClient;
+  @Mock PricingSheetClient pricingSheetClient;
+  @Mock MenuBroadcaster    broadcaster;
+  @Mock MenuSnapshotStore  store;
+
+  private final MeterRegistry registry = new SimpleMeterRegistry();
+
+  private static UpstreamGuards guards() {
+    return new UpstreamGuards(3, Duration.ofMinutes(1), 4);
+  }
+
+  private MenuSnapshotService service(Duration maxAge) {
+    return service(maxAge, new MenuVersionProbe("", Duration.ofSeconds(2)));
+  }
+
+  private MenuSnapshotService service(Duration maxAge, MenuVersionProbe probe) {
+    return new MenuSnapshotService(donutsClient, rollClient, pricingSheetClient, broadcaster,
+        store, new MenuMetrics(registry, broadcaster), guards(), probe,
+        maxAge, Duration.ofSeconds(5), ZoneId.of("America/Chicago"));
+  }
+
+  @Test
+  void getSnapshot_reusesFreshSnapshot() {
+    when(donutsClient.findByItemTypes(any(ItemType[].class))).thenReturn(List.of(new Donut()));
+    when(rollClient.findByItemTypes(any(ItemType[].class))).thenReturn(List.of());
+    when(pricingSheetClient.findAll()).thenReturn(List.of());
+    MenuSnapshotService service = service(Duration.ofMinutes(15));
+
+    MenuSnapshot first  = service.getSnapshot();
+    MenuSnapshot second = service.getSnapshot();
+
+    assertThat(second).isSameAs(first);
+    verify(pricingSheetClient, times(1)).findAll();
+  }
+
+  @Test
+  void refresh_unchangedContent_keepsVersionBroadcastsOnceAndSendsAHeartbeat() {
+    when(donutsClient.findByItemTypes(any(ItemType[].class))).thenReturn(List.of(new Donut()));
+    when(rollClient.findByItemTypes(any(ItemType[].class))).thenReturn(List.of());
+    when(pricingSheetClient.findAll()).thenReturn(List.of());
+    MenuSnapshotService service = service(Duration.ofMinutes(15));
+
+    MenuSnapshot first  = service.refresh().join();
+    MenuSnapshot second = service.refresh().join();
+
+    assertThat(second.version()).isEqualTo(first.version());
+    verify(broadcaster, times(1)).broadcast(any(MenuSnapshot.class));
+    verify(broadcaster).heartbeat(second);
+  }
+
+  @Test
+  void refresh_changedContent_broadcastsNewVersion() {
+    Donut donut = new Donut();
+    donut.setDescription("Glazed");
+    when(donutsClient.findByItemTypes(any(ItemType[].class))).thenReturn(List.of(donut));
+    when(rollClient.findByItemTypes(any(ItemType[].class))).thenReturn(List.of());
+    when(pricingSheetClient.findAll()).thenReturn(List.of());
+    MenuSnapshotService service = service(Duration.ofMinutes(15));
+
+    MenuSnapshot first = service.refresh().join();
+    donut.setDescription("Chocolate Glazed");
+    MenuSnapshot second = service.refresh().join();
+
+    assertThat(second.version()).isGreaterThan(first.version());
+    verify(broadcaster).broadcast(second);
+  }
+
+  @Test
+  void getSnapshot_expiredSnapshot_isServedWhileRefetchedInBackground() {
+    when(donutsClient.findByItemTypes(any(ItemType[].class))).thenReturn(List.of());
+    when(rollClient.findByItemTypes(any(ItemType[].class))).thenReturn(List.of());
+    when(pricingSheetClient.findAll()).thenReturn(List.of());
+    MenuSnapshotService service = service(Duration.ofMillis(-1));
+
+    MenuSnapshot first  = service.getSnapshot();
+    MenuSnapshot second = service.getSnapshot();
+
+    assertThat(second).isSameAs(first);
+    verify(pricingSheetClient, timeout(5_000).times(2)).findAll();
+  }
+
+  @Test
+  void refresh_failingUpstream_opensCircuitAndServesStaleWithoutCalling() {
+    Donut donut = new Donut();
+    donut.setDescription("Glazed");
+    when(donutsClient.findByItemTypes(any(ItemType[].class))).thenReturn(List.of(donut));
+    when(rollClient.findByItemTypes(any(ItemType[].class))).thenReturn(List.of());
+    when(pricingSheetClient.findAll()).thenReturn(List.of());
+    MenuSnapshotService service = service(Duration.ofMinutes(15));
+    service.refresh().join();
+
+    when(pricingSheetClient.findAll()).thenThrow(new IllegalStateException("down"));
+    for (int i = 0; i < 3; i++) service.refresh().join();
+    MenuSnapshot snapshot = service.refresh().join();
+
+    verify(pricingSheetClient, times(4)).findAll();
+    assertThat(snapshot.donuts()).extracting(MenuItem::description).containsExactly("Glazed");
+    assertThat(registry.get("menu.refresh.failures").tag("cause", "circuit_open").counter().count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void getSnapshot_failingClient_yieldsEmptyListForThatCall() {
+    when(donutsClient.findByItemTypes(any(ItemType[].class))).thenThrow(new IllegalStateException("down"));
+    when(rollClient.findByItemTypes(any(ItemType[].class))).thenReturn(List.of());
+    when(pricingSheetClient.findAll()).thenReturn(List.of());
+
+    MenuSnapshot snapshot = service(Duration.ofMinutes(15)).getSnapshot();
+
+    assertThat(snapshot.donuts()).isEmpty();
+    assertThat(snapshot.hasNoProducts()).isTrue();
+  }
+
+  @Test
+  void refresh_slowCall_timesOutAndKeepsPreviousList() {
+    Donut donut = new Donut();
+    donut.setDescription("Glazed");
+    when(donutsClient.findByItemTypes(any(ItemType[].class))).thenReturn(List.of(donut));
+    when(rollClient.findByItemTypes(any(ItemType[].class))).thenReturn(List.of());
+    when(pricingSheetClient.findAll()).thenReturn(List.of());
+    MenuSnapshotService service = new MenuSnapshotService(donutsClient, rollClient,
+        pricingSheetClient, broadcaster, store, new MenuMetrics(registry, broadcaster),
+        guards(), new MenuVersionProbe("", Duration.ofSeconds(2)),
+        Duration.ofMinutes(15), Duration.ofMillis(200),
+        ZoneId.of("America/Chicago"));
+    service.refresh().join();
+
+    when(donutsClient.findByItemTypes(any(ItemType[].class))).thenAnswer(inv -> {
+      Thread.sleep(2_000);
+      return List.of();
+    });
+    long start = System.nanoTime();
+    MenuSnapshot snapshot = service.refresh().join();
+
+    assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1_500);
+    assertThat(snapshot.donuts()).extracting(MenuItem::description).containsExactly("Glazed");
+    assertThat(snapshot.donutHoles()).extracting(MenuItem::description).containsExactly("Glazed");
+    assertThat(registry.get("menu.refresh.failures").tag("cause", "timeout").counter().count())
+        .isEqualTo(2);
+    assertThat(registry.get("menu.upstream.call").tags("call", "rolls", "outcome", "success").timer().count())
+        .isEqualTo(2);
+  }
+
+  @Test
+  void refresh_concurrentCallers_shareOneFetch() throws Exception {
+    CountDownLatch entered = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(donutsClient.findByItemTypes(any(ItemType[].class))).thenReturn(List.of());
+    when(rollClient.findByItemTypes(any(ItemType[].class))).thenReturn(List.of());
+    when(pricingSheetClient.findAll()).thenAnswer(inv -> {
+      entered.countDown();
+      release.await(5, TimeUnit.SECONDS);
+      return List.of();
+    });
+    MenuSnapshotService service = service(Duration.ofMinutes(15));
+
+    CompletableFuture<MenuSnapshot> leader = CompletableFuture.supplyAsync(() -> service.refresh().join());
+    assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+    CompletableFuture<MenuSnapshot> follower = service.refresh();
+    release.countDown();
+
+    assertThat(follower.get(5, TimeUnit.SECONDS)).isSameAs(leader.get(5, TimeUnit.SECONDS));
+    verify(pricingSheetClient, times(1)).findAll();
+  }
+
+  @Test
+  void getSnapshot_servesRestoredSnapshotUntilRevalidated() throws Exception {
+    MenuItem glazed = MenuItem.of(donut("Glazed"), ZoneId.of("America/Chicago"));
+    MenuSnapshot stored = new MenuSnapshot(7, Instant.parse("2024-01-01T12:00:00Z"),
+        List.of(glazed), List.of(), List.of(), List.of());
+    CountDownLatch release = new CountDownLatch(1);
+    when(store.load()).thenReturn(Optional.of(stored));
+    when(donutsClient.findByItemTypes(any(ItemType[].class))).thenAnswer(inv -> {
+      release.await(5, TimeUnit.SECONDS);
+      return List.of(donut("Maple"));
+    });
+    MenuSnapshotService service = service(Duration.ofMinutes(15));
+
+    service.restore();
+
+    assertThat(service.getSnapshot()).isSameAs(stored);
+    release.countDown();
+    MenuSnapshot revalidated = service.refresh().join();
+    assertThat(revalidated.version()).isGreaterThan(7);
+    assertThat(revalidated.donuts()).extracting(MenuItem::description).containsExactly("Maple");
+    verify(store, timeout(5_000)).save(any(MenuSnapshot.class));
+  }
+
+  @Test
+  void refresh_emptyCatalog_isNotStored() {
+    when(donutsClient.findByItemTypes(any(ItemType[].class))).thenReturn(List.of());
+    when(rollClient.findByItemTypes(any(ItemType[].class))).thenReturn(List.of());
+    when(pricingSheetClient.findAll()).thenReturn(List.of());
+
+    service(Duration.ofMinutes(15)).refresh().join();
+
+    verify(store, never()).save(any());
+  }
+
+  @Test
+  void sections_beforeFirstFetch_completeIndependentlyWithoutBlocking() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    when(donutsClient.findByItemTypes(any(ItemType[].class))).thenReturn(List.of(donut("Glazed")));
+    when(rollClient.findByItemTypes(any(ItemType[].class))).thenReturn(List.of());
+    when(pricingSheetClient.findAll()).thenAnswer(inv -> {
+      release.await(5, TimeUnit.SECONDS);
+      return List.of();
+    });
+    MenuSnapshotService service = service(Duration.ofMinutes(15));
+
+    MenuSections sections = service.sections();
+
+    assertThat(sections.donuts().toCompletableFuture().get(5, TimeUnit.SECONDS))
+        .extracting(MenuItem::description).containsExactly("Glazed");
+    assertThat(sections.prices().toCompletableFuture()).isNotDone();
+    assertThat(service.currentSnapshot()).isEmpty();
+    release.countDown();
+    assertThat(sections.prices().toCompletableFuture().get(5, TimeUnit.SECONDS)).isEmpty();
+    verify(broadcaster, timeout(5_000)).broadcast(any(MenuSnapshot.class));
+  }
+
+  @Test
+  void sections_withSnapshot_areCompleteAtOnce() {
+    when(donutsClient.findByItemTypes(any(ItemType[].class))).thenReturn(List.of(donut("Glazed")));
+    when(rollClient.findByItemTypes(any(ItemType[].class))).thenReturn(List.of());
+    when(pricingSheetClient.findAll()).thenReturn(List.of());
+    MenuSnapshotService service = service(Duration.ofMinutes(15));
+    MenuSnapshot snapshot = service.refresh().join();
+
+    MenuSections sections = service.sections();
+
+    assertThat(sections.rolls().toCompletableFuture().join()).isSameAs(snapshot.rolls());
+    verify(pricingSheetClient, times(1)).findAll();
+  }
+
+  @Test
+  void refresh_probeReportsNotModified_skipsCatalogCalls() throws Exception {
+    AtomicInteger probes = new AtomicInteger();
+    HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/version", exchange -> {
+      probes.incrementAndGet();
+      boolean current = "\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"));
+      exchange.getResponseHeaders().set("ETag", "\"v1\"");
+      exchange.sendResponseHeaders(current ? 304 : 200, -1);
+      exchange.close();
+    });
+    server.start();
+    try {
+      when(donutsClient.findByItemTypes(any(ItemType[].class))).thenReturn(List.of(donut("Glazed")));
+      when(rollClient.findByItemTypes(any(ItemType[].class))).thenReturn(List.of());
+      when(pricingSheetClient.findAll()).thenReturn(List.of());
+      MenuSnapshotService service = service(Duration.ofMinutes(15), new MenuVersionProbe(
+          "http://127.0.0.1:" + server.getAddress().getPort() + "/version", Duration.ofSeconds(2)));
+
+      MenuSnapshot first  = service.refresh().join();
+      MenuSnapshot second = service.refresh().join();
+
+      assertThat(probes.get()).isEqualTo(2);
+      assertThat(second.version()).isEqualTo(first.version());
+      assertThat(second.donuts()).isSameAs(first.donuts());
+      verify(pricingSheetClient, times(1)).findAll();
+      assertThat(registry.get("menu.fetch.probe").tag("result", "unchanged").counter().count()).isEqualTo(1);
+    } finally {
+      server.stop(0);
+    }
+  }
+
+  private static Donut donut(String description) {
+    Donut donut = new Donut();
+    donut.setDescription(description);
+    return donut;
+  }
+}
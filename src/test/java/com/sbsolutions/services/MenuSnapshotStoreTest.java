@@ -0,0 +1,79 @@
+package com.sbsolutions.services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MenuSnapshotStoreTest {
+
+  @TempDir Path dir;
+
+  private static MenuSnapshot snapshot() {
+    MenuItem glazed = new MenuItem("Glazed", "Glazed", "https://cdn.example.com/glazed.png",
+        "image-proxy/card?src=https%3A%2F%2Fcdn.example.com%2Fglazed.png",
+        "image-proxy/special?src=https%3A%2F%2Fcdn.example.com%2Fglazed.png",
+        "Mon,Wed", 0b101, "Mon · Wed", 1, "$1.29 / each", "$0.99 / each", LocalDate.of(2024, 3, 4));
+    MenuItem holes = TestMenuItems.item("Holes", Integer.MAX_VALUE, null);
+    return new MenuSnapshot(42, Instant.ofEpochMilli(1_700_000_000_123L),
+        List.of(glazed), List.of(holes), List.of(),
+        List.of(new PriceRow("Dozen", "box", "$14.99", 1),
+            new PriceRow("Crème brûlée", "", "", Integer.MAX_VALUE)));
+  }
+
+  @Test
+  void saveThenLoad_roundTripsSnapshot() {
+    MenuSnapshotStore store = new MenuSnapshotStore(dir.resolve("nested/menu.bin"));
+    MenuSnapshot snapshot = snapshot();
+
+    store.save(snapshot);
+
+    assertThat(store.load()).contains(snapshot);
+  }
+
+  @Test
+  void save_replacesPreviousFileWithoutLeftovers() throws IOException {
+    MenuSnapshotStore store = new MenuSnapshotStore(dir.resolve("menu.bin"));
+    store.save(snapshot());
+    MenuSnapshot empty = new MenuSnapshot(43, Instant.now(), List.of(), List.of(), List.of(), List.of());
+
+    store.save(empty);
+
+    assertThat(store.load()).map(MenuSnapshot::version).contains(43L);
+    try (var files = Files.list(dir)) {
+      assertThat(files).extracting(p -> p.getFileName().toString()).containsExactly("menu.bin");
+    }
+  }
+
+  @Test
+  void load_missingFile_isEmpty() {
+    assertThat(new MenuSnapshotStore(dir.resolve("absent.bin")).load()).isEmpty();
+  }
+
+  @Test
+  void load_corruptFile_isEmpty() throws IOException {
+    Path file = dir.resolve("menu.bin");
+    MenuSnapshotStore store = new MenuSnapshotStore(file);
+    store.save(snapshot());
+    byte[] data = Files.readAllBytes(file);
+    data[20] ^= 0x5A;
+    Files.write(file, data);
+
+    assertThat(store.load()).isEmpty();
+  }
+
+  @Test
+  void load_truncatedFile_isEmpty() throws IOException {
+    Path file = dir.resolve("menu.bin");
+    Files.write(file, new byte[] {0x4F, 0x4D});
+
+    assertThat(new MenuSnapshotStore(file).load()).isEmpty();
+  }
+}
@@ -0,0 +1,37 @@
+package com.sbsolutions.services;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/** Compiled {@link MenuItem}s for tests that only care about an item's name, position or image. */
+public final class TestMenuItems {
+
+  public static final String PRICE = "$1.29 / each";
+
+  private TestMenuItems() {}
+
+  /** An item without images, days or special price, keyed by name like a product without an id. */
+  public static MenuItem item(String description) {
+    return item(description, 0);
+  }
+
+  public static MenuItem item(String description, int sortKey) {
+    return item(description, sortKey, PRICE);
+  }
+
+  public static MenuItem item(String description, int sortKey, String priceText) {
+    return new MenuItem("name:" + description, description, null, null, null,
+        null, 0, null, sortKey, priceText, null, null);
+  }
+
+  /** {@link #item(String)} with {@code imageUrl} as its original, card and specials image. */
+  public static MenuItem withImage(String description, String imageUrl) {
+    return new MenuItem("name:" + description, description, imageUrl, imageUrl, imageUrl,
+        null, 0, null, 0, PRICE, null, null);
+  }
+
+  /** {@code count} items named {@code "<prefix> <i>"} with sort key {@code i}. */
+  public static List<MenuItem> items(String prefix, int count) {
+    return IntStream.range(0, count).mapToObj(i -> item(prefix + " " + i, i)).toList();
+  }
+}
@@ -0,0 +1,173 @@
+package com.sbsolutions.services;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Drives {@link UpstreamGuard} against a local HTTP stub whose latency and status can be
+ * changed per test, standing in for a slow or failing order-data.
+ */
+class UpstreamGuardTest {
+
+  private static final Duration TIMEOUT = Duration.ofMillis(200);
+
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+  private final HttpClient http = HttpClient.newHttpClient();
+  private final AtomicInteger hits = new AtomicInteger();
+  private volatile long latencyMillis;
+  private volatile int status = 200;
+  private HttpServer server;
+
+  @BeforeEach
+  void startStub() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    server.createContext("/donuts", exchange -> {
+      hits.incrementAndGet();
+      try {
+        Thread.sleep(latencyMillis);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+      exchange.sendResponseHeaders(status, body.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(body);
+      }
+    });
+    server.start();
+  }
+
+  @AfterEach
+  void stopStub() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+
+  /** One call to the stub; non-200 responses fail like a client error would. */
+  private Supplier<String> donuts() {
+    URI uri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/donuts");
+    return () -> {
+      try {
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(uri).build(),
+            HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) throw new IllegalStateException("HTTP " + response.statusCode());
+        return response.body();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException(e);
+      }
+    };
+  }
+
+  private static Throwable failure(CompletableFuture<?> future) {
+    try {
+      future.join();
+      throw new AssertionError("expected the call to fail");
+    } catch (CompletionException e) {
+      return e.getCause();
+    }
+  }
+
+  @Test
+  void call_healthyUpstream_staysClosed() {
+    UpstreamGuard guard = new UpstreamGuard("donuts", 2, Duration.ofMinutes(1), 2);
+
+    assertThat(guard.call(donuts(), executor, TIMEOUT).join()).isEqualTo("[]");
+    assertThat(guard.state()).isEqualTo(UpstreamGuard.State.CLOSED);
+  }
+
+  @Test
+  void call_slowUpstream_opensCircuitAndRejectsWithoutCalling() {
+    UpstreamGuard guard = new UpstreamGuard("donuts", 2, Duration.ofMinutes(1), 4);
+    latencyMillis = 1_000;
+
+    assertThat(failure(guard.call(donuts(), executor, TIMEOUT))).isInstanceOf(TimeoutException.class);
+    assertThat(failure(guard.call(donuts(), executor, TIMEOUT))).isInstanceOf(TimeoutException.class);
+    int hitsWhenOpened = hits.get();
+
+    long start = System.nanoTime();
+    Throwable rejected = failure(guard.call(donuts(), executor, TIMEOUT));
+
+    assertThat(rejected).isInstanceOf(UpstreamRejectedException.class);
+    assertThat(((UpstreamRejectedException) rejected).reason()).isEqualTo("circuit_open");
+    assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(TIMEOUT);
+    assertThat(hits.get()).isEqualTo(hitsWhenOpened);
+    assertThat(guard.state()).isEqualTo(UpstreamGuard.State.OPEN);
+  }
+
+  @Test
+  void call_afterOpenDuration_probesAndClosesOnRecovery() throws InterruptedException {
+    UpstreamGuard guard = new UpstreamGuard("donuts", 1, Duration.ofMillis(300), 4);
+    status = 503;
+    assertThat(failure(guard.call(donuts(), executor, TIMEOUT))).isInstanceOf(IllegalStateException.class);
+    assertThat(guard.state()).isEqualTo(UpstreamGuard.State.OPEN);
+
+    Thread.sleep(400);
+    status = 200;
+
+    assertThat(guard.call(donuts(), executor, TIMEOUT).join()).isEqualTo("[]");
+    assertThat(guard.state()).isEqualTo(UpstreamGuard.State.CLOSED);
+  }
+
+  @Test
+  void call_failedProbe_reopensCircuit() throws InterruptedException {
+    UpstreamGuard guard = new UpstreamGuard("donuts", 1, Duration.ofMillis(300), 4);
+    status = 503;
+    failure(guard.call(donuts(), executor, TIMEOUT));
+    Thread.sleep(400);
+
+    failure(guard.call(donuts(), executor, TIMEOUT));
+
+    assertThat(guard.state()).isEqualTo(UpstreamGuard.State.OPEN);
+    assertThat(failure(guard.call(donuts(), executor, TIMEOUT)))
+        .isInstanceOf(UpstreamRejectedException.class);
+  }
+
+  @Test
+  void call_hungCallsHoldBulkheadUntilTheyReturn() {
+    UpstreamGuard guard = new UpstreamGuard("donuts", 10, Duration.ofMinutes(1), 1);
+    latencyMillis = 600;
+
+    CompletableFuture<String> hung = guard.call(donuts(), executor, TIMEOUT);
+    assertThat(failure(hung)).isInstanceOf(TimeoutException.class);
+
+    Throwable rejected = failure(guard.call(donuts(), executor, TIMEOUT));
+    assertThat(((UpstreamRejectedException) rejected).reason()).isEqualTo("bulkhead_full");
+    assertThat(hits.get()).isEqualTo(1);
+  }
+
+  @Test
+  void call_throwingSupplier_countsAsFailure() {
+    UpstreamGuard guard = new UpstreamGuard("donuts", 1, Duration.ofMinutes(1), 1);
+
+    assertThatThrownBy(() -> guard.call(() -> { throw new IllegalStateException("boom"); },
+        executor, TIMEOUT).join()).hasCauseInstanceOf(IllegalStateException.class);
+    assertThat(guard.state()).isEqualTo(UpstreamGuard.State.OPEN);
+  }
+}
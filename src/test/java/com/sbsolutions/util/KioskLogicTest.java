@@ -8,7 +8,9 @@ import org.junit.jupiter.params.provider.NullAndEmptySource;
 import org.junit.jupiter.params.provider.ValueSource;
 
 import java.time.DayOfWeek;
+import java.util.Arrays;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -140,10 +142,20 @@ class KioskLogicTest {
 
   @Test
   void dayOrder_firstDayInString_isUsed() {
-    // "Mon,Fri" — Mon appears first in DAY_ORDER so index 0 is returned
+    // "Mon,Fri" — Mon is the earliest day so index 0 is returned
     assertThat(KioskLogic.dayOrder("Mon,Fri")).isEqualTo(0);
   }
 
+  @ParameterizedTest
+  @CsvSource(delimiter = ';', value = {
+      "Fri,Tue;    1",
+      "Sat-Mon;    0",
+      "thursday;   3",
+  })
+  void dayOrder_usesTheEarliestDayOfTheMask(String input, int expected) {
+    assertThat(KioskLogic.dayOrder(input)).isEqualTo(expected);
+  }
+
   // ── parseDay ─────────────────────────────────────────────────────────────
 
   @Test
@@ -270,4 +282,79 @@ class KioskLogicTest {
     assertThat(result).containsExactlyInAnyOrder(
         DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY, DayOfWeek.FRIDAY);
   }
+
+  // ── availabilityMask ──────────────────────────────────────────────────────
+
+  @ParameterizedTest
+  @NullAndEmptySource
+  @ValueSource(strings = {"   ", "xyz", "Mon-", "-Fri"})
+  void availabilityMask_noRecognisedDay_returnsZero(String s) {
+    assertThat(KioskLogic.availabilityMask(s)).isZero();
+  }
+
+  @ParameterizedTest
+  @CsvSource(delimiter = ';', value = {
+      "Mon;             1",
+      "Sun;             64",
+      "Mon-Fri;         31",
+      "Sat-Mon;         97",
+      "'Mon, Wed,Fri';  21",
+      "monday-WED;      7",
+      "Wed-Wed;         4",
+  })
+  void availabilityMask_knownInputs(String input, int expected) {
+    assertThat(KioskLogic.availabilityMask(input)).isEqualTo(expected);
+  }
+
+  @ParameterizedTest
+  @CsvSource(delimiter = ';', value = {
+      "Mon;              MONDAY",
+      "Mon-Fri;          MONDAY TUESDAY WEDNESDAY THURSDAY FRIDAY",
+      "Sat-Mon;          SATURDAY SUNDAY MONDAY",
+      "Mon-Wed,Fri;      MONDAY TUESDAY WEDNESDAY FRIDAY",
+      "xyz,Mon;          MONDAY",
+      "'Thurs, sunday';  THURSDAY SUNDAY",
+      "Fri-Sun;          FRIDAY SATURDAY SUNDAY",
+  })
+  void availabilityMask_agreesWithParseAvailableDays(String input, String days) {
+    Set<DayOfWeek> expected = Arrays.stream(days.split(" ")).map(DayOfWeek::valueOf).collect(Collectors.toSet());
+
+    assertThat(KioskLogic.toDays(KioskLogic.availabilityMask(input))).isEqualTo(expected);
+    assertThat(KioskLogic.parseAvailableDays(input)).isEqualTo(expected);
+  }
+
+  @Test
+  void availabilityMask_repeatedInput_returnsSameValue() {
+    int first = KioskLogic.availabilityMask("Tue-Thu");
+    assertThat(KioskLogic.availabilityMask("Tue-Thu")).isEqualTo(first);
+  }
+
+  @Test
+  void isAvailableOn_mask() {
+    int mask = KioskLogic.availabilityMask("Sat-Mon");
+    assertThat(KioskLogic.isAvailableOn(mask, DayOfWeek.SUNDAY)).isTrue();
+    assertThat(KioskLogic.isAvailableOn(mask, DayOfWeek.WEDNESDAY)).isFalse();
+  }
+
+  @Test
+  void isAvailableOn_string() {
+    assertThat(KioskLogic.isAvailableOn("Mon-Wed", DayOfWeek.TUESDAY)).isTrue();
+    assertThat(KioskLogic.isAvailableOn((String) null, DayOfWeek.TUESDAY)).isFalse();
+  }
+
+  @ParameterizedTest
+  @CsvSource({
+      "Mon,      0",
+      "Wed-Fri,  2",
+      "Sat-Mon,  0",
+      "Sun,      6",
+  })
+  void firstDayOrder_returnsEarliestDay(String input, int expected) {
+    assertThat(KioskLogic.firstDayOrder(KioskLogic.availabilityMask(input))).isEqualTo(expected);
+  }
+
+  @Test
+  void firstDayOrder_emptyMask_returns7() {
+    assertThat(KioskLogic.firstDayOrder(0)).isEqualTo(7);
+  }
 }
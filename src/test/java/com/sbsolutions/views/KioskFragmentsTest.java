@@ -0,0 +1,87 @@
+package com.sbsolutions.views;
+
+import com.sbsolutions.services.MenuItem;
+import com.sbsolutions.services.PriceRow;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.sbsolutions.services.TestMenuItems.item;
+import static com.sbsolutions.services.TestMenuItems.withImage;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KioskFragmentsTest {
+
+  private static final LocalDate MONDAY  = LocalDate.of(2026, 10, 12);
+  private static final LocalDate TUESDAY = MONDAY.plusDays(1);
+
+  private final KioskFragments fragments = new KioskFragments();
+
+  @Test
+  void cards_equalContent_returnsTheSameInstance() {
+    String first = fragments.cards(List.of(item("Glazed"), item("Maple")));
+    String second = fragments.cards(new ArrayList<>(List.of(item("Glazed"), item("Maple"))));
+
+    assertThat(second).isSameAs(first);
+    assertThat(fragments.size()).isEqualTo(1);
+  }
+
+  @Test
+  void cards_concurrentMisses_allGetTheStoredInstance() throws Exception {
+    List<MenuItem> page = new ArrayList<>();
+    for (int i = 0; i < 200; i++) page.add(withImage("Donut " + i, "image-proxy/card?src=" + i));
+    ExecutorService pool = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<String>> results = new ArrayList<>();
+      for (int i = 0; i < 8; i++) results.add(pool.submit(() -> fragments.cards(page)));
+
+      String stored = fragments.cards(page);
+      for (Future<String> result : results) assertThat(result.get(5, TimeUnit.SECONDS)).isSameAs(stored);
+      assertThat(fragments.size()).isEqualTo(1);
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  @Test
+  void cards_escapesTextAndAttributes() {
+    String html = fragments.cards(List.of(withImage("<b>Bear \"Claw\"</b>", "image-proxy/card?src=a&w=1")));
+
+    assertThat(html)
+        .contains("&lt;b&gt;Bear &quot;Claw&quot;&lt;/b&gt;")
+        .contains("src=\"image-proxy/card?src=a&amp;w=1\"")
+        .doesNotContain("<b>");
+  }
+
+  @Test
+  void cards_withoutImage_rendersPlaceholder() {
+    assertThat(fragments.cards(List.of(item("Glazed"))))
+        .contains("kiosk-card-img-placeholder")
+        .doesNotContain("<img");
+  }
+
+  @Test
+  void priceRows_rendersOneRowPerPrice() {
+    String html = fragments.priceRows(List.of(
+        new PriceRow("Dozen", "box", "$14.99", 1), new PriceRow("Half dozen", "box", "$7.99", 2)));
+
+    assertThat(html.split("class=\"kiosk-prices-row\"", -1)).hasSize(3);
+    assertThat(html).contains("$14.99").contains("Half dozen");
+  }
+
+  @Test
+  void specials_areCachedPerDay() {
+    List<MenuItem> specials = List.of(item("Glazed"));
+
+    String monday = fragments.specials(specials, MONDAY);
+
+    assertThat(fragments.specials(specials, MONDAY)).isSameAs(monday);
+    assertThat(fragments.specials(specials, TUESDAY)).isNotSameAs(monday);
+  }
+}
@@ -0,0 +1,107 @@
+package com.sbsolutions.views;
+
+import com.sbsolutions.services.MenuItem;
+import com.sbsolutions.services.TestMenuItems;
+import com.vaadin.flow.dom.Element;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KioskSectionTest {
+
+  private static List<MenuItem> items(int count) {
+    return TestMenuItems.items("Item", count);
+  }
+
+  private final KioskFragments fragments = new KioskFragments();
+
+  /** Page keys in DOM order, each with its number of cards. */
+  private static List<String> pages(KioskSection section) {
+    Element track = section.getElement().getChild(1).getChild(0);
+    return track.getChildren()
+        .map(page -> page.getAttribute("data-key") + ":" + cards(page))
+        .toList();
+  }
+
+  private static int cards(Element page) {
+    return page.getProperty("innerHTML", "").split("class=\"kiosk-card\"", -1).length - 1;
+  }
+
+  @Test
+  void update_largeCatalog_materializesOnlyShownAndNextPage() {
+    KioskSection section = new KioskSection("Donuts", fragments);
+
+    int created = section.update(items(100));
+
+    assertThat(created).isEqualTo(2 * KioskSection.DEFAULT_PAGE_SIZE);
+    assertThat(pages(section)).containsExactly("0:12", "1:12");
+  }
+
+  @Test
+  void showPage_dropsThePageThatLeftAndBuildsTheFollowingOne() {
+    KioskSection section = new KioskSection("Donuts", fragments);
+    section.update(items(30));
+
+    section.showPage(1);
+    assertThat(pages(section)).containsExactly("1:12", "2:6");
+
+    section.showPage(2);
+    assertThat(pages(section)).containsExactly("2:6", "0:12");
+  }
+
+  @Test
+  void setPageSize_keepsTheFirstShownCardOnScreen() {
+    KioskSection section = new KioskSection("Donuts", fragments);
+    section.update(items(100));
+    section.showPage(2);                       // cards 24..35
+
+    section.setPageSize(10);
+
+    assertThat(section.pageSize()).isEqualTo(10);
+    assertThat(pages(section)).containsExactly("2:10", "3:10");
+  }
+
+  @Test
+  void setPageSize_clampsClientReportedCapacity() {
+    KioskSection section = new KioskSection("Donuts", fragments);
+
+    section.setPageSize(10_000);
+
+    assertThat(section.pageSize()).isEqualTo(KioskSection.MAX_PAGE_SIZE);
+  }
+
+  @Test
+  void update_shrinkingCatalog_fallsBackToTheFirstPage() {
+    KioskSection section = new KioskSection("Donuts", fragments);
+    section.update(items(40));
+    section.showPage(3);
+
+    section.update(items(5));
+
+    assertThat(pages(section)).containsExactly("0:5");
+    assertThat(section.materializedPages()).isEqualTo(1);
+  }
+
+  @Test
+  void update_unchangedMenu_rendersNothing() {
+    KioskSection section = new KioskSection("Donuts", fragments);
+    section.update(items(30));
+
+    assertThat(section.update(items(30))).isZero();
+  }
+
+  @Test
+  void update_kiosksShowingTheSamePage_shareItsMarkup() {
+    KioskSection first = new KioskSection("Donuts", fragments);
+    KioskSection second = new KioskSection("Donuts", fragments);
+
+    first.update(items(30));
+    second.update(items(30));
+
+    Element firstPage = first.getElement().getChild(1).getChild(0).getChild(0);
+    Element secondPage = second.getElement().getChild(1).getChild(0).getChild(0);
+    assertThat(secondPage.getProperty("innerHTML")).isSameAs(firstPage.getProperty("innerHTML"));
+  }
+}